@@ -0,0 +1,51 @@
+@REM ----------------------------------------------------------------------------
+@REM Licensed to the Apache Software Foundation (ASF) under one
+@REM or more contributor license agreements.  See the NOTICE file
+@REM distributed with this work for additional information
+@REM regarding copyright ownership.  The ASF licenses this file
+@REM to you under the Apache License, Version 2.0 (the
+@REM "License"); you may not use this file except in compliance
+@REM with the License.  You may obtain a copy of the License at
+@REM
+@REM    http://www.apache.org/licenses/LICENSE-2.0
+@REM
+@REM Unless required by applicable law or agreed to in writing,
+@REM software distributed under the License is distributed on an
+@REM "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+@REM KIND, either express or implied.  See the License for the
+@REM specific language governing permissions and limitations
+@REM under the License.
+@REM ----------------------------------------------------------------------------
+
+@REM ----------------------------------------------------------------------------
+@REM Class Data Sharing setup, called by the Maven launcher
+@REM
+@REM Sets MAVEN_CDS_OPTS to the JVM options enabling the class data sharing
+@REM archive of this distribution, or leaves it empty when the JDK in use can't
+@REM use one. The archive is opened with -Xshare:auto, so a JDK or classpath that
+@REM doesn't match the archive silently falls back to regular class loading.
+@REM
+@REM Optional ENV vars
+@REM   MAVEN_CDS - set to "false" to disable class data sharing
+@REM ----------------------------------------------------------------------------
+
+set MAVEN_CDS_OPTS=
+
+if "%MAVEN_CDS%"=="false" goto endCds
+if not exist "%MAVEN_HOME%\lib\maven.jsa" goto endCds
+if not exist "%JAVA_HOME%\release" goto endCds
+
+set MAVEN_CDS_JAVA_VERSION=
+for /f "tokens=2 delims==" %%v in ('findstr /b "JAVA_VERSION=" "%JAVA_HOME%\release"') do set "MAVEN_CDS_JAVA_VERSION=%%~v"
+if "%MAVEN_CDS_JAVA_VERSION%"=="" goto endCds
+@REM Java 8 and earlier have no dynamic archive support
+if "%MAVEN_CDS_JAVA_VERSION:~0,2%"=="1." goto endCds
+
+for /f "delims=.+-" %%m in ("%MAVEN_CDS_JAVA_VERSION%") do set MAVEN_CDS_JAVA_MAJOR=%%m
+if %MAVEN_CDS_JAVA_MAJOR% LSS 13 goto endCds
+
+set MAVEN_CDS_OPTS=-XX:SharedArchiveFile="%MAVEN_HOME%\lib\maven.jsa" -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off
+
+:endCds
+set MAVEN_CDS_JAVA_VERSION=
+set MAVEN_CDS_JAVA_MAJOR=
@@ -0,0 +1,60 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#    http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+# -----------------------------------------------------------------------------
+# Class Data Sharing setup, sourced by the Maven launcher
+#
+# Sets MAVEN_CDS_OPTS to the JVM options enabling the class data sharing
+# archive of this distribution, or leaves it empty when the JDK in use can't
+# use one. The archive is opened with -Xshare:auto, so a JDK or classpath that
+# doesn't match the archive silently falls back to regular class loading.
+#
+# Environment Variable Prerequisites
+#
+#   MAVEN_HOME  Location of this distribution.
+#
+#   JAVA_HOME   Location of the JDK in use; CDS is only enabled when its
+#               release file shows a version recent enough.
+#
+#   MAVEN_CDS   (Optional) Set to "false" to disable class data sharing.
+# -----------------------------------------------------------------------------
+
+MAVEN_CDS_OPTS=
+
+if [ "$MAVEN_CDS" != "false" ] && [ -n "$JAVA_HOME" ] && [ -f "$JAVA_HOME/release" ] ; then
+  MAVEN_CDS_JAVA_VERSION=`sed -n 's/^JAVA_VERSION="\(.*\)"/\1/p' "$JAVA_HOME/release"`
+  case "$MAVEN_CDS_JAVA_VERSION" in
+    1.*|"")
+      # Java 8 and earlier have no dynamic archive support
+      MAVEN_CDS_JAVA_MAJOR=0 ;;
+    *)
+      MAVEN_CDS_JAVA_MAJOR=`expr "$MAVEN_CDS_JAVA_VERSION" : '\([0-9]*\)'` ;;
+  esac
+
+  if [ "$MAVEN_CDS_JAVA_MAJOR" -ge 19 ] ; then
+    # let the JVM create and refresh an archive per distribution and JDK in the
+    # user's Maven directory: the archive shipped in lib records the paths of
+    # the build, which these JDKs don't accept for another installation
+    MAVEN_CDS_KEY=`echo "$MAVEN_HOME $JAVA_HOME" | cksum | cut -d ' ' -f 1`
+    if mkdir -p "$HOME/.m2/cds" 2>/dev/null ; then
+      MAVEN_CDS_OPTS="-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=$HOME/.m2/cds/maven-$MAVEN_CDS_KEY.jsa -Xlog:cds=off -Xlog:cds+dynamic=off"
+    fi
+  elif [ -f "$MAVEN_HOME/lib/maven.jsa" ] && [ "$MAVEN_CDS_JAVA_MAJOR" -ge 13 ] ; then
+    # archive created by the distribution build
+    MAVEN_CDS_OPTS="-XX:SharedArchiveFile=$MAVEN_HOME/lib/maven.jsa -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off"
+  fi
+fi
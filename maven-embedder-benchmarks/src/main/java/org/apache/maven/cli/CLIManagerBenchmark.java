@@ -0,0 +1,96 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.GnuParser;
+import org.apache.commons.cli.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction of the option table and parsing of a typical command line, compared with the commons-cli
+ * <code>GnuParser</code> path that {@link CLIManager#parse(String[])} replaced.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CLIManagerBenchmark
+{
+    static final String[] ARGS = { "-B", "-e", "-U", "-T", "1C", "-Dmaven.test.skip=true", "-Dskip.it", "-Prelease,ci",
+        "-pl", "maven-core,maven-embedder", "-am", "-s", "settings.xml", "--fail-at-end", "clean", "install" };
+
+    private CLIManager cliManager;
+
+    @Setup
+    public void setup()
+    {
+        cliManager = CLIManager.getInstance();
+    }
+
+    @Benchmark
+    public CLIManager construct()
+    {
+        return new CLIManager();
+    }
+
+    @Benchmark
+    public CommandLine parse()
+        throws ParseException
+    {
+        return cliManager.parse( ARGS );
+    }
+
+    @Benchmark
+    public CommandLine constructAndParse()
+        throws ParseException
+    {
+        return new CLIManager().parse( ARGS );
+    }
+
+    @Benchmark
+    @SuppressWarnings( "deprecation" )
+    public CommandLine commonsCliParse()
+        throws ParseException
+    {
+        return new GnuParser().parse( cliManager.options, CleanArgument.cleanArgs( ARGS ) );
+    }
+
+    @Benchmark
+    @SuppressWarnings( "deprecation" )
+    public CommandLine commonsCliConstructAndParse()
+        throws ParseException
+    {
+        return new GnuParser().parse( new CLIManager().options, CleanArgument.cleanArgs( ARGS ) );
+    }
+}
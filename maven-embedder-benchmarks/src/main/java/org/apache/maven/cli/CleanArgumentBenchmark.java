@@ -0,0 +1,83 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CleanArgument#cleanArgs(String[])} on long argument lists, where one argument out of three is a value
+ * quoted over several words, as produced by the Windows launcher.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CleanArgumentBenchmark
+{
+    @Param( { "10", "100", "1000" } )
+    int size;
+
+    private String[] args;
+
+    @Setup
+    public void setup()
+    {
+        List<String> list = new ArrayList<>();
+        for ( int i = 0; i < size; i++ )
+        {
+            switch ( i % 3 )
+            {
+                case 0:
+                    list.add( "-Dplain.property." + i + "=value" );
+                    break;
+                case 1:
+                    list.add( "\"-Dquoted.property." + i + "=first" );
+                    list.add( "second" );
+                    list.add( "third\"" );
+                    break;
+                default:
+                    list.add( "\"-Dsingle.quoted." + i + "=value\"" );
+            }
+        }
+        args = list.toArray( new String[0] );
+    }
+
+    @Benchmark
+    public String[] cleanArgs()
+    {
+        return CleanArgument.cleanArgs( args );
+    }
+}
@@ -0,0 +1,85 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merge of the command line with a large <code>.mvn/maven.config</code>, which is parsed once up front.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CliMergeBenchmark
+{
+    @Param( { "10", "100", "1000" } )
+    int configEntries;
+
+    private MavenCli cli;
+
+    private CommandLine mavenArgs;
+
+    private CommandLine mavenConfig;
+
+    @Setup
+    public void setup()
+        throws ParseException
+    {
+        CLIManager cliManager = new CLIManager();
+
+        List<String> config = new ArrayList<>();
+        config.add( "--batch-mode" );
+        config.add( "-T" );
+        config.add( "4" );
+        for ( int i = 0; i < configEntries; i++ )
+        {
+            config.add( "-Dconfig.property." + i + "=value" + i );
+        }
+
+        cli = new MavenCli();
+        mavenArgs = cliManager.parse( CLIManagerBenchmark.ARGS );
+        mavenConfig = cliManager.parse( config.toArray( new String[0] ) );
+    }
+
+    @Benchmark
+    public CommandLine cliMerge()
+    {
+        return cli.cliMerge( mavenArgs, mavenConfig );
+    }
+}
@@ -0,0 +1,131 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.PlexusContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end creation of the Plexus container by {@link MavenCli#container(CliRequest)}, followed by the first
+ * component lookup of {@link MavenCli#execute(CliRequest, PlexusContainer)}. Each invocation is measured on its own:
+ * the first iterations of a fork show the cold start, the last ones the cost seen by an embedder creating containers
+ * repeatedly.
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = ContainerBenchmark.MEASUREMENTS )
+@Fork( 3 )
+@State( Scope.Benchmark )
+public class ContainerBenchmark
+{
+    /**
+     * Single shots measured per fork, enough to see the cost settle after the cold ones.
+     */
+    static final int MEASUREMENTS = 20;
+
+    private File projectDirectory;
+
+    private PrintStream stdout;
+
+    private ClassLoader contextClassLoader;
+
+    private MavenCli cli;
+
+    private CliRequest cliRequest;
+
+    private PlexusContainer container;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        projectDirectory = Files.createTempDirectory( "maven-benchmark" ).toFile();
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        // the bootstrap prints the Maven version and the core realm
+        stdout = System.out;
+        System.setOut( new PrintStream( new OutputStream()
+        {
+            @Override
+            public void write( int b )
+            {
+            }
+        } ) );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        System.setOut( stdout );
+        projectDirectory.delete();
+    }
+
+    @Setup( Level.Iteration )
+    public void prepareRequest()
+        throws Exception
+    {
+        cli = new MavenCli();
+        cliRequest = new CliRequest( new String[] { "-B", "-q" }, null );
+        cliRequest.multiModuleProjectDirectory = projectDirectory;
+        cli.initialize( cliRequest );
+        cli.cli( cliRequest );
+        cli.properties( cliRequest );
+        cli.logging( cliRequest );
+    }
+
+    @TearDown( Level.Iteration )
+    public void disposeContainer()
+    {
+        if ( container != null )
+        {
+            container.dispose();
+            container = null;
+        }
+        Thread.currentThread().setContextClassLoader( contextClassLoader );
+    }
+
+    @Benchmark
+    public PlexusContainer container()
+        throws Exception
+    {
+        container = cli.container( cliRequest );
+        cli.execute( cliRequest, container );
+        return container;
+    }
+}
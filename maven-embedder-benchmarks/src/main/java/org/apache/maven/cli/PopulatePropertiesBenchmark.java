@@ -0,0 +1,110 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link MavenCli#populateProperties(CommandLine, Map, Properties, Properties)} with environments of increasing size,
+ * as seen on CI agents, against the layered view returned by
+ * {@link MavenCli#populateProperties(CommandLine, Map, Properties)}.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class PopulatePropertiesBenchmark
+{
+    @Param( { "50", "500", "5000" } )
+    int environmentSize;
+
+    private CommandLine commandLine;
+
+    private Map<String, String> environment;
+
+    private PrintStream stdout;
+
+    @Setup
+    public void setup()
+        throws ParseException
+    {
+        commandLine = new CLIManager().parse( CLIManagerBenchmark.ARGS );
+
+        environment = new HashMap<>();
+        for ( int i = 0; i < environmentSize; i++ )
+        {
+            environment.put( "ENVIRONMENT_VARIABLE_" + i, "/some/path/" + i + ":/another/path/" + i );
+        }
+
+        // populateProperties prints the Maven version
+        stdout = System.out;
+        System.setOut( new PrintStream( new OutputStream()
+        {
+            @Override
+            public void write( int b )
+            {
+            }
+        } ) );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        System.setOut( stdout );
+    }
+
+    @Benchmark
+    public Properties populateProperties()
+    {
+        Properties systemProperties = new Properties();
+        Properties userProperties = new Properties();
+        MavenCli.populateProperties( commandLine, environment, systemProperties, userProperties );
+        return systemProperties;
+    }
+
+    @Benchmark
+    public String layeredProperties()
+    {
+        Properties userProperties = new Properties();
+        return MavenCli.populateProperties( commandLine, environment, userProperties ).getProperty( "maven.version" );
+    }
+}
@@ -0,0 +1,105 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.shared.utils.logging.MessageUtils;
+import org.fusesource.jansi.AnsiConsole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.event.Level;
+
+/**
+ * Log lines printed to a console that is not a terminal, as in batch mode, through jansi as before or through the
+ * plain stream of {@link ConsoleOutput}, and rendering of the level prefix of a log line.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class ConsoleBenchmark
+{
+    private static final String LINE =
+        "Downloaded from central: https://repo.maven.apache.org/maven2/org/example/artifact/1.0/artifact-1.0.jar";
+
+    @Param( { "jansi", "plain" } )
+    String console;
+
+    private PrintStream out;
+
+    @Setup
+    public void setup()
+        throws FileNotFoundException
+    {
+        // stands in for the file descriptor of a redirected standard output
+        FileOutputStream descriptor = new FileOutputStream( new File( "/dev/null" ) );
+        if ( "jansi".equals( console ) )
+        {
+            out = new PrintStream( AnsiConsole.wrapOutputStream( descriptor ) );
+        }
+        else
+        {
+            out = new PrintStream( new BufferedOutputStream( descriptor, 64 * 1024 ), false );
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        out.close();
+    }
+
+    @Benchmark
+    public void println()
+    {
+        out.print( ConsoleOutput.getLevelPrefix( Level.INFO ) );
+        out.println( LINE );
+    }
+
+    @Benchmark
+    public String renderLevel()
+    {
+        return "[" + MessageUtils.level().info( "INFO" ) + "] ";
+    }
+
+    @Benchmark
+    public String preRenderedLevel()
+    {
+        return ConsoleOutput.getLevelPrefix( Level.INFO );
+    }
+}
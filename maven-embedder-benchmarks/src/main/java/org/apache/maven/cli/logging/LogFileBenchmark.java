@@ -0,0 +1,92 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lines printed to the <code>-l</code> log file, unbuffered as before or through {@link LogFileSink}.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class LogFileBenchmark
+{
+    private static final String LINE =
+        "[INFO] Downloaded from central: "
+            + "https://repo.maven.apache.org/maven2/org/example/artifact/1.0/artifact-1.0.jar";
+
+    @Param( { "stream", "sink", "gzip" } )
+    String output;
+
+    private File file;
+
+    private PrintStream out;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        file = File.createTempFile( "maven-log", "gzip".equals( output ) ? ".log.gz" : ".log" );
+        if ( "stream".equals( output ) )
+        {
+            out = new PrintStream( new FileOutputStream( file ) );
+        }
+        else
+        {
+            LogFileSink sink = new LogFileSink( file, 1024 * 1024, LogFileSink.Flush.BUFFER, LogFileSink.Fsync.NEVER,
+                                                0, 0, "gzip".equals( output ) );
+            out = new PrintStream( sink );
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        out.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public void println()
+    {
+        out.println( LINE );
+    }
+}
@@ -0,0 +1,86 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lookup of the SLF4J binding configuration and creation of Plexus component loggers.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class Slf4jBenchmark
+{
+    @Param( { "1", "100" } )
+    int roles;
+
+    private ILoggerFactory loggerFactory;
+
+    private Slf4jLoggerManager loggerManager;
+
+    private String[] roleNames;
+
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        loggerFactory = LoggerFactory.getILoggerFactory();
+        loggerManager = new Slf4jLoggerManager();
+        roleNames = new String[roles];
+        for ( int i = 0; i < roles; i++ )
+        {
+            roleNames[i] = "org.apache.maven.component.Role" + i;
+        }
+    }
+
+    @Benchmark
+    public Slf4jConfiguration getConfiguration()
+    {
+        return Slf4jConfigurationFactory.getConfiguration( loggerFactory );
+    }
+
+    @Benchmark
+    public Logger getLoggerForComponent()
+    {
+        String role = roleNames[next];
+        next = ( next + 1 ) % roleNames.length;
+        return loggerManager.getLoggerForComponent( role );
+    }
+}
@@ -23,8 +23,6 @@
 import java.io.PrintWriter;
 
 import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.GnuParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
@@ -103,8 +101,12 @@
 
     public static final String NO_TRANSFER_PROGRESS = "ntp";
 
+    private static final CLIManager INSTANCE = new CLIManager();
+
     protected Options options;
 
+    private volatile OptionTable optionTable;
+
     @SuppressWarnings( { "static-access", "checkstyle:linelength" } )
     public CLIManager()
     {
@@ -151,15 +153,32 @@ public CLIManager()
         options.addOption( Option.builder( "npu" ).longOpt( "no-plugin-updates" ).desc( "Ineffective, only kept for backward compatibility" ).build() );
     }
 
+    /**
+     * Returns a shared instance, for callers that only parse and display help.
+     *
+     * @return the shared instance, whose options must not be modified
+     * @since 3.6.4
+     */
+    public static CLIManager getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Parses the arguments the way {@link CleanArgument#cleanArgs(String[])} followed by <code>GnuParser</code> do,
+     * eating any quotes surrounding arguments, without modifying the options. The options are snapshotted on first
+     * use, so parsing is thread-safe.
+     */
     public CommandLine parse( String[] args )
         throws ParseException
     {
-        // We need to eat any quotes surrounding arguments...
-        String[] cleanArgs = CleanArgument.cleanArgs( args );
-
-        CommandLineParser parser = new GnuParser();
-
-        return parser.parse( options, cleanArgs );
+        OptionTable table = optionTable;
+        if ( table == null )
+        {
+            table = new OptionTable( options );
+            optionTable = table;
+        }
+        return table.parse( args );
     }
 
     public void displayHelp( PrintStream stdout )
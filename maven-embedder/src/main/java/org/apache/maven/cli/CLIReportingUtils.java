@@ -29,6 +29,8 @@
 import java.util.Properties;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.cli.internal.StartupManifest;
+import org.apache.maven.cli.logging.JsonLoggerFactory;
 import org.codehaus.plexus.util.Os;
 import org.slf4j.Logger;
 
@@ -53,6 +55,8 @@
 
     public static final String BUILD_VERSION_PROPERTY = "version";
 
+    private static volatile Properties buildProperties;
+
     public static String showVersion()
     {
         final String ls = System.getProperty( "line.separator" );
@@ -110,6 +114,21 @@ private static String reduce( String s )
     }
 
     static Properties getBuildProperties()
+    {
+        Properties properties = buildProperties;
+        if ( properties == null )
+        {
+            StartupManifest manifest = StartupManifest.getInstance();
+            properties = manifest != null ? manifest.getBuildProperties() : loadBuildProperties();
+            buildProperties = properties;
+        }
+
+        Properties copy = new Properties();
+        copy.putAll( properties );
+        return copy;
+    }
+
+    private static Properties loadBuildProperties()
     {
         Properties properties = new Properties();
 
@@ -132,21 +151,28 @@ static Properties getBuildProperties()
 
     public static void showError( Logger logger, String message, Throwable e, boolean showStackTrace )
     {
+        // structured logging gets the whole exception chain in one record
+        Logger textLogger = JsonLoggerFactory.logStructuredError( logger, message, e );
+        if ( textLogger == null )
+        {
+            return;
+        }
+
         if ( showStackTrace )
         {
-            logger.error( message, e );
+            textLogger.error( message, e );
         }
         else
         {
-            logger.error( message );
+            textLogger.error( message );
 
             if ( e != null )
             {
-                logger.error( e.getMessage() );
+                textLogger.error( e.getMessage() );
 
                 for ( Throwable cause = e.getCause(); cause != null; cause = cause.getCause() )
                 {
-                    logger.error( "Caused by: {}", cause.getMessage() );
+                    textLogger.error( "Caused by: {}", cause.getMessage() );
                 }
             }
         }
@@ -20,9 +20,12 @@
  */
 
 import java.io.File;
+import java.util.Map;
 import java.util.Properties;
 
 import org.apache.commons.cli.CommandLine;
+import org.apache.maven.cli.configuration.ProjectConfiguration;
+import org.apache.maven.properties.internal.PropertyInterpolator;
 import org.codehaus.plexus.classworlds.ClassWorld;
 
 /**
@@ -50,6 +53,12 @@
 
     Properties systemProperties = new Properties();
 
+    Map<String, String> environment;
+
+    ProjectConfiguration projectConfiguration;
+
+    PropertyInterpolator interpolator;
+
 //    MavenExecutionRequest request;
 
     CliRequest( String[] args, ClassWorld classWorld )
@@ -108,6 +117,33 @@ public Properties getSystemProperties()
         return systemProperties;
     }
 
+    /**
+     * @return the environment variables of the invoking process, or <code>null</code> if they are the ones of the
+     *         current JVM
+     */
+    public Map<String, String> getEnvironment()
+    {
+        return environment;
+    }
+
+    /**
+     * @return the configuration of the <code>.mvn</code> directory of the project
+     * @since 3.6.4
+     */
+    public ProjectConfiguration getProjectConfiguration()
+    {
+        return projectConfiguration;
+    }
+
+    /**
+     * @return the interpolator resolving <code>${...}</code> references against the system properties of the request
+     * @since 3.6.4
+     */
+    public PropertyInterpolator getInterpolator()
+    {
+        return interpolator;
+    }
+
     public void setUserProperties( Properties properties ) 
     {
         this.userProperties.putAll( properties );      
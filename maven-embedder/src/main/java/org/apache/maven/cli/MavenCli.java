@@ -4,28 +4,54 @@
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.UnrecognizedOptionException;
 import org.apache.maven.BuildAbort;
+import org.apache.maven.cli.configuration.ProjectConfiguration;
+import org.apache.maven.cli.configuration.ProjectConfigurationCache;
+import org.apache.maven.cli.internal.BootstrapEvents;
+import org.apache.maven.cli.internal.ComponentReport;
+import org.apache.maven.cli.internal.ContainerPool;
 import org.apache.maven.cli.internal.DefaultService2;
+import org.apache.maven.cli.internal.RequestScope;
+import org.apache.maven.cli.internal.RequestScopedLoggerFactory;
+import org.apache.maven.cli.internal.StartupManifest;
+import org.apache.maven.cli.internal.StartupProfiler;
+import org.apache.maven.cli.logging.AsyncOutput;
+import org.apache.maven.cli.logging.BaseSlf4jConfiguration;
+import org.apache.maven.cli.logging.ConsoleOutput;
+import org.apache.maven.cli.logging.LogFileSink;
+import org.apache.maven.cli.logging.LoggerLevels;
+import org.apache.maven.cli.logging.ModuleOutput;
 import org.apache.maven.cli.logging.Slf4jConfiguration;
 import org.apache.maven.cli.logging.Slf4jConfigurationFactory;
+import org.apache.maven.cli.logging.Slf4jLogger;
 import org.apache.maven.cli.logging.Slf4jLoggerManager;
 import org.apache.maven.cli.logging.Slf4jStdoutLogger;
+import org.apache.maven.cli.logging.SuppressingLoggerFactory;
+import org.apache.maven.cli.logging.impl.Slf4jJsonConfiguration;
+import org.apache.maven.properties.internal.EnvironmentSnapshot;
+import org.apache.maven.properties.internal.EnvironmentStore;
 import org.apache.maven.properties.internal.EnvironmentUtils;
+import org.apache.maven.properties.internal.LayeredProperties;
+import org.apache.maven.properties.internal.PropertySource;
+import org.apache.maven.properties.internal.PropertyInterpolator;
 import org.apache.maven.properties.internal.SystemProperties;
 import org.apache.maven.shared.utils.logging.MessageUtils;
 import org.codehaus.plexus.ContainerConfiguration;
@@ -34,8 +60,10 @@
 import org.codehaus.plexus.PlexusConstants;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.ClassWorldListener;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
 import org.codehaus.plexus.classworlds.realm.NoSuchRealmException;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.logging.LoggerManager;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
@@ -61,6 +89,9 @@
  */
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.util.Modules;
 
 // TODO push all common bits back to plexus cli and prepare for transition to Guice. We don't need 50 ways to make CLIs
 
@@ -81,10 +112,33 @@ public class MavenCli {
 	public static final File DEFAULT_GLOBAL_TOOLCHAINS_FILE = new File(System.getProperty("maven.conf"),
 			"toolchains.xml");
 
-	private static final String MVN_MAVEN_CONFIG = ".mvn/maven.config";
-
 	public static final String STYLE_COLOR_PROPERTY = "style.color";
 
+	/**
+	 * JVM system property enabling the creation of the Plexus container on a
+	 * background thread, concurrently with the command line, properties and
+	 * logging setup. Container settings given with <code>-D</code> on the Maven
+	 * command line, such as the pool size, are not visible to the
+	 * background thread and must be passed as JVM options instead.
+	 *
+	 * @since 3.6.4
+	 */
+	public static final String CONCURRENT_BOOTSTRAP_PROPERTY = "maven.bootstrap.concurrent";
+
+	/**
+	 * JVM system property letting several builds run at the same time in this
+	 * JVM. Each build then gets its own standard streams, system properties and
+	 * logging level instead of replacing the ones of the JVM, see
+	 * {@link RequestScope}. Loggers obtained directly from the static
+	 * {@link LoggerFactory} rather than through the container, as well as the
+	 * color setting, remain shared by all builds.
+	 *
+	 * @since 3.6.4
+	 */
+	public static final String CONCURRENT_EXECUTION_PROPERTY = "maven.embedder.concurrent";
+
+	private static RequestScopedLoggerFactory sharedLoggerFactory;
+
 	private ClassWorld classWorld;
 
 	private LoggerManager plexusLoggerManager;
@@ -93,6 +147,24 @@ public class MavenCli {
 
 	private Logger slf4jLogger;
 
+	private ContainerPool.PooledContainer pooledContainer;
+
+	private StartupProfiler profiler = StartupProfiler.disabled();
+
+	private FutureTask<DefaultPlexusContainer> containerBootstrap;
+
+	private ContainerPool.SwitchableLoggerFactory containerLoggerFactory;
+
+	private String containerReport;
+
+	private ComponentReport componentReport;
+
+	private LogFileSink logFileSink;
+
+	private Slf4jJsonConfiguration jsonConfiguration;
+
+	private SuppressingLoggerFactory suppressingLoggerFactory;
+
 	public MavenCli() {
 		this(null);
 	}
@@ -112,10 +184,18 @@ public static void main(String[] args) {
 	public static int main(String[] args, ClassWorld classWorld) {
 		MavenCli cli = new MavenCli();
 
-		MessageUtils.systemInstall();
-		MessageUtils.registerShutdownHook();
+		// without color, the ANSI processing of jansi is only overhead
+		boolean plainConsole = ConsoleOutput.install(args);
+		if (!plainConsole) {
+			MessageUtils.systemInstall();
+			MessageUtils.registerShutdownHook();
+		}
 		int result = cli.doMain(new CliRequest(args, classWorld));
-		MessageUtils.systemUninstall();
+		if (plainConsole) {
+			ConsoleOutput.uninstall();
+		} else {
+			MessageUtils.systemUninstall();
+		}
 
 		return result;
 	}
@@ -133,59 +213,138 @@ public static int doMain(String[] args, ClassWorld classWorld) {
 	 * <code>Embedded3xLauncher</code> in <code>maven-verifier</code></a>
 	 */
 	public int doMain(String[] args, String workingDirectory, PrintStream stdout, PrintStream stderr) {
+		return doMain(args, workingDirectory, null, null, stdout, stderr);
+	}
+
+	/**
+	 * Same as {@link #doMain(String[], String, PrintStream, PrintStream)}, but
+	 * lets the caller supply the multi-module project directory and the
+	 * environment of the invoking process, as done by the build daemon on behalf
+	 * of its clients.
+	 *
+	 * @param multiModuleProjectDirectory the project base directory, or
+	 *                                    <code>null</code> to read it from the
+	 *                                    <code>maven.multiModuleProjectDirectory</code>
+	 *                                    system property
+	 * @param environment                 the environment variables, or
+	 *                                    <code>null</code> to use the ones of
+	 *                                    this JVM
+	 */
+	public int doMain(String[] args, String workingDirectory, File multiModuleProjectDirectory,
+			Map<String, String> environment, PrintStream stdout, PrintStream stderr) {
 		PrintStream oldout = System.out;
 		PrintStream olderr = System.err;
 
+		// in concurrent mode, other builds create and dispose realms at the same time
+		final RequestScope scope = Boolean.getBoolean(CONCURRENT_EXECUTION_PROPERTY)
+				? enterRequestScope(stdout, stderr)
+				: null;
+
 		final Set<String> realms;
+		final ClassWorldListener realmListener = classWorld != null ? BootstrapEvents.realmListener() : null;
+		final ClassWorldListener scopeListener = classWorld != null && scope != null ? scope.getRealmListener()
+				: null;
 		if (classWorld != null) {
 			realms = new HashSet<>();
-			for (ClassRealm realm : classWorld.getRealms()) {
-				realms.add(realm.getId());
+			if (scopeListener != null) {
+				classWorld.addListener(scopeListener);
+			} else {
+				for (ClassRealm realm : classWorld.getRealms()) {
+					realms.add(realm.getId());
+				}
+			}
+			if (realmListener != null) {
+				classWorld.addListener(realmListener);
 			}
 		} else {
 			realms = Collections.emptySet();
 		}
 
 		try {
-			if (stdout != null) {
-				System.setOut(stdout);
-			}
-			if (stderr != null) {
-				System.setErr(stderr);
+			if (scope == null) {
+				if (stdout != null) {
+					System.setOut(stdout);
+				}
+				if (stderr != null) {
+					System.setErr(stderr);
+				}
 			}
 
 			CliRequest cliRequest = new CliRequest(args, classWorld);
 			cliRequest.workingDirectory = workingDirectory;
+			cliRequest.multiModuleProjectDirectory = multiModuleProjectDirectory;
+			cliRequest.environment = environment != null ? EnvironmentStore.getInstance().snapshot(environment)
+					: null;
 
 			return doMain(cliRequest);
 		} finally {
 			if (classWorld != null) {
-				for (ClassRealm realm : new ArrayList<>(classWorld.getRealms())) {
-					String realmId = realm.getId();
-					if (!realms.contains(realmId)) {
-						try {
-							classWorld.disposeRealm(realmId);
-						} catch (NoSuchRealmException ignored) {
-							// can't happen
+				List<String> disposable = new ArrayList<>();
+				if (scopeListener != null) {
+					disposable.addAll(scope.getCreatedRealms());
+					classWorld.removeListener(scopeListener);
+				} else {
+					for (ClassRealm realm : classWorld.getRealms()) {
+						if (!realms.contains(realm.getId())) {
+							disposable.add(realm.getId());
 						}
 					}
 				}
+				for (String realmId : disposable) {
+					try {
+						classWorld.disposeRealm(realmId);
+					} catch (NoSuchRealmException ignored) {
+						// can't happen
+					}
+				}
+				if (realmListener != null) {
+					classWorld.removeListener(realmListener);
+				}
+			}
+			if (scope != null) {
+				scope.close();
+			} else {
+				System.setOut(oldout);
+				System.setErr(olderr);
 			}
-			System.setOut(oldout);
-			System.setErr(olderr);
 		}
 	}
 
 	// TODO need to externalize CliRequest
 	public int doMain(CliRequest cliRequest) {
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		RequestScope scope = Boolean.getBoolean(CONCURRENT_EXECUTION_PROPERTY) && RequestScope.current() == null
+				? enterRequestScope(null, null)
+				: null;
+
+		profiler = StartupProfiler.forInvocation(cliRequest.args);
+		StartupProfiler.Span total = profiler.start("doMain");
 		PlexusContainer localContainer = null;
 		try {
-			initialize(cliRequest);
-			cli(cliRequest);
-			properties(cliRequest);
-			logging(cliRequest);
-			version(cliRequest);
-			localContainer = container(cliRequest);
+			try (StartupProfiler.Span span = profiler.start("initialize")) {
+				initialize(cliRequest);
+			}
+			if (Boolean.getBoolean(CONCURRENT_BOOTSTRAP_PROPERTY) && !isQuery(cliRequest.args)) {
+				startContainerBootstrap(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("cli")) {
+				cli(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("properties")) {
+				properties(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("logging")) {
+				logging(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("version")) {
+				version(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("container")) {
+				localContainer = container(cliRequest);
+			}
+			try (StartupProfiler.Span span = profiler.start("execute")) {
+				execute(cliRequest, localContainer);
+			}
 			return 0;
 		} catch (ExitException e) {
 			return e.exitCode;
@@ -201,9 +360,70 @@ public int doMain(CliRequest cliRequest) {
 
 			return 1;
 		} finally {
-			if (localContainer != null) {
+			if (containerBootstrap != null) {
+				// failed before the container was needed, don't leak it
+				try {
+					localContainer = joinContainerBootstrap();
+				} catch (Exception e) {
+					// the bootstrap failure is irrelevant, the request already failed
+				}
+			}
+
+			if (componentReport != null) {
+				componentReport.report(slf4jLogger);
+				componentReport = null;
+			}
+
+			if (pooledContainer != null) {
+				ContainerPool.getInstance().release(pooledContainer);
+				pooledContainer = null;
+			} else if (localContainer != null) {
 				localContainer.dispose();
 			}
+
+			total.close();
+			writeStartupProfile(cliRequest);
+
+			if (suppressingLoggerFactory != null) {
+				suppressingLoggerFactory.logSummary();
+				suppressingLoggerFactory = null;
+			}
+
+			// including after ExitException and BuildAbort, nothing printed may be left behind
+			ModuleOutput.uninstall();
+			AsyncOutput.drain();
+			if (logFileSink != null) {
+				try {
+					logFileSink.close();
+				} catch (IOException e) {
+					// reported by the sink
+				}
+				logFileSink = null;
+			}
+			if (jsonConfiguration != null) {
+				try {
+					jsonConfiguration.close();
+				} catch (IOException e) {
+					// reported by the sink
+				}
+				jsonConfiguration = null;
+			}
+
+			Thread.currentThread().setContextClassLoader(contextClassLoader);
+			if (scope != null) {
+				scope.close();
+			}
+		}
+	}
+
+	private void writeStartupProfile(CliRequest cliRequest) {
+		if (!profiler.isEnabled()) {
+			return;
+		}
+		try {
+			profiler.write(cliRequest.workingDirectory != null ? new File(cliRequest.workingDirectory) : null);
+		} catch (IOException e) {
+			System.err.println("Unable to write startup profile " + profiler.getFile() + ": " + e.getMessage());
 		}
 	}
 
@@ -247,26 +467,17 @@ void cli(CliRequest cliRequest) throws Exception {
 		//
 		slf4jLogger = new Slf4jStdoutLogger();
 
-		CLIManager cliManager = new CLIManager();
-
-		List<String> args = new ArrayList<>();
-		CommandLine mavenConfig = null;
-		try {
-			File configFile = new File(cliRequest.multiModuleProjectDirectory, MVN_MAVEN_CONFIG);
-
-			if (configFile.isFile()) {
-				for (String arg : new String(Files.readAllBytes(configFile.toPath())).split("\\s+")) {
-					if (!arg.isEmpty()) {
-						args.add(arg);
-					}
-				}
+		CLIManager cliManager = CLIManager.getInstance();
 
-				mavenConfig = cliManager.parse(args.toArray(new String[0]));
-				List<?> unrecongized = mavenConfig.getArgList();
-				if (!unrecongized.isEmpty()) {
-					throw new ParseException("Unrecognized maven.config entries: " + unrecongized);
-				}
+		CommandLine mavenConfig;
+		try (StartupProfiler.Span span = profiler.start("maven.config")) {
+			if (ProjectConfigurationCache.isEnabled()) {
+				cliRequest.projectConfiguration = ProjectConfigurationCache.getInstance()
+						.get(cliRequest.multiModuleProjectDirectory);
+			} else {
+				cliRequest.projectConfiguration = new ProjectConfiguration(cliRequest.multiModuleProjectDirectory);
 			}
+			mavenConfig = cliRequest.projectConfiguration.getMavenConfig();
 		} catch (ParseException e) {
 			System.err.println("Unable to parse maven.config: " + e.getMessage());
 			cliManager.displayHelp(System.out);
@@ -296,7 +507,7 @@ void cli(CliRequest cliRequest) throws Exception {
 		}
 	}
 
-	private CommandLine cliMerge(CommandLine mavenArgs, CommandLine mavenConfig) {
+	CommandLine cliMerge(CommandLine mavenArgs, CommandLine mavenConfig) {
 		CommandLine.Builder commandLineBuilder = new CommandLine.Builder();
 
 		// the args are easy, cli first then config file
@@ -336,13 +547,26 @@ void logging(CliRequest cliRequest) {
 		cliRequest.showErrors = cliRequest.debug || cliRequest.commandLine.hasOption(CLIManager.ERRORS);
 
 		slf4jLoggerFactory = LoggerFactory.getILoggerFactory();
-		Slf4jConfiguration slf4jConfiguration = Slf4jConfigurationFactory.getConfiguration(slf4jLoggerFactory);
+		Slf4jConfiguration slf4jConfiguration;
+		try (StartupProfiler.Span span = profiler.start("slf4jConfiguration")) {
+			slf4jConfiguration = Slf4jConfigurationFactory.getConfiguration(slf4jLoggerFactory);
+		}
+
+		String jsonTarget = Slf4jJsonConfiguration.getRequestedTarget();
+		if (jsonTarget != null && RequestScope.current() == null) {
+			jsonConfiguration = new Slf4jJsonConfiguration(slf4jConfiguration,
+					Slf4jJsonConfiguration.CONSOLE.equals(jsonTarget) ? null
+							: resolveFile(new File(jsonTarget), cliRequest.workingDirectory));
+			slf4jConfiguration = jsonConfiguration;
+		}
 
 		// else fall back to default log level specified in conf
 		// see https://issues.apache.org/jira/browse/MNG-2570
 
 		// LOG COLOR
-		String styleColor = cliRequest.getUserProperties().getProperty(STYLE_COLOR_PROPERTY, "auto");
+		String styleColor = cliRequest.getUserProperties().containsKey(STYLE_COLOR_PROPERTY)
+				? cliRequest.interpolator.getProperty(STYLE_COLOR_PROPERTY)
+				: "auto";
 		if ("always".equals(styleColor)) {
 			MessageUtils.setColorEnabled(true);
 		} else if ("never".equals(styleColor)) {
@@ -362,20 +586,100 @@ void logging(CliRequest cliRequest) {
 
 			// redirect stdout and stderr to file
 			try {
-				PrintStream ps = new PrintStream(new FileOutputStream(logFile));
-				System.setOut(ps);
-				System.setErr(ps);
-			} catch (FileNotFoundException e) {
-				//
-				// Ignore
-				//
+				logFileSink = LogFileSink.open(logFile);
+				PrintStream ps = new PrintStream(logFileSink);
+				RequestScope scope = RequestScope.current();
+				if (scope != null) {
+					scope.setOut(ps);
+					scope.setErr(ps);
+				} else {
+					System.setOut(ps);
+					System.setErr(ps);
+				}
+			} catch (IOException e) {
+				System.err.println("Unable to write the log file " + logFile + ", logging to the console: "
+						+ e.getMessage());
+			}
+		}
+
+		RequestScope scope = RequestScope.current();
+		if (scope == null && ModuleOutput.isEnabled()) {
+			// before the binding keeps the stream it writes to
+			ModuleOutput.install();
+		}
+		LoggerLevels loggerLevels = LoggerLevels.fromProperties(System.getProperties());
+		if (scope == null) {
+			if (slf4jConfiguration instanceof BaseSlf4jConfiguration) {
+				for (Map.Entry<String, Integer> category : loggerLevels.getCategories().entrySet()) {
+					((BaseSlf4jConfiguration) slf4jConfiguration).setLoggerLevel(category.getKey(),
+							category.getValue());
+				}
+			}
+			try (StartupProfiler.Span event = BootstrapEvents
+					.loggingActivation(slf4jConfiguration.getClass().getName())) {
+				slf4jConfiguration.activate();
+			}
+			if (jsonConfiguration != null) {
+				try {
+					slf4jLoggerFactory = jsonConfiguration.getLoggerFactory(slf4jLoggerFactory);
+				} catch (IOException e) {
+					System.err.println("Unable to write the JSON log, logging as text: " + e.getMessage());
+				}
 			}
+		} else {
+			// the binding was activated once for all builds, see enterRequestScope
+			slf4jLoggerFactory = sharedLoggerFactory;
+			scope.setLevel(cliRequest.debug ? org.slf4j.event.Level.DEBUG
+					: cliRequest.quiet ? org.slf4j.event.Level.ERROR : org.slf4j.event.Level.INFO);
 		}
 
-		slf4jConfiguration.activate();
+		// in front of the binding and of the JSON output, so suppressed messages cost neither
+		suppressingLoggerFactory = SuppressingLoggerFactory.newInstance(slf4jLoggerFactory);
+		if (suppressingLoggerFactory != null) {
+			slf4jLoggerFactory = suppressingLoggerFactory;
+		}
 
-		plexusLoggerManager = new Slf4jLoggerManager();
+		// loggers of pooled containers keep the levels they checked until told, the levels of categories
+		// apply to the whole JVM and so only outside of concurrent mode
+		if (scope == null) {
+			Slf4jLogger.setLevels(loggerLevels);
+		} else {
+			Slf4jLogger.invalidateLevels();
+		}
+		// in concurrent mode, loggers check the level of the build of the calling thread
+		plexusLoggerManager = new Slf4jLoggerManager(slf4jLoggerFactory, scope == null);
 		slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
+
+		if (cliRequest.debug && cliRequest.systemProperties instanceof LayeredProperties) {
+			StringBuilder sources = new StringBuilder();
+			for (PropertySource source : ((LayeredProperties) cliRequest.systemProperties).getSources()) {
+				sources.append(sources.length() > 0 ? " < " : "").append(source.getName());
+			}
+			slf4jLogger.debug("System properties layered as " + sources);
+		}
+		if (cliRequest.debug && cliRequest.environment instanceof EnvironmentSnapshot) {
+			slf4jLogger.debug("Environment differs from the one of this JVM in "
+					+ ((EnvironmentSnapshot) cliRequest.environment).getOverlaySize() + " variables");
+		}
+	}
+
+	private static RequestScope enterRequestScope(PrintStream stdout, PrintStream stderr) {
+		synchronized (MavenCli.class) {
+			if (sharedLoggerFactory == null) {
+				// the binding must write to the routed streams; as resetting it would disturb
+				// running builds, it is activated once to log everything and each build filters
+				RequestScope.install();
+				ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+				Slf4jConfiguration slf4jConfiguration = Slf4jConfigurationFactory.getConfiguration(loggerFactory);
+				try (StartupProfiler.Span event = BootstrapEvents
+						.loggingActivation(slf4jConfiguration.getClass().getName())) {
+					slf4jConfiguration.setRootLoggerLevel(Slf4jConfiguration.Level.DEBUG);
+					slf4jConfiguration.activate();
+				}
+				sharedLoggerFactory = new RequestScopedLoggerFactory(LoggerFactory.getILoggerFactory());
+			}
+		}
+		return RequestScope.enter(stdout, stderr);
 	}
 
 	private void version(CliRequest cliRequest) {
@@ -388,48 +692,212 @@ private void version(CliRequest cliRequest) {
 	// possible
 	// Maybe it's better to move some of those methods to separate class (SoC).
 	void properties(CliRequest cliRequest) {
-		populateProperties(cliRequest.commandLine, cliRequest.systemProperties, cliRequest.userProperties);
+		cliRequest.systemProperties = populateProperties(cliRequest.commandLine, cliRequest.environment,
+				cliRequest.userProperties);
+		cliRequest.interpolator = new PropertyInterpolator(cliRequest.systemProperties);
+		interpolateCliProperties(cliRequest.userProperties, cliRequest.interpolator);
 	}
 
 	PlexusContainer container(CliRequest cliRequest) throws Exception {
+		ClassRealm coreRealm = coreRealm(cliRequest);
+
+		coreRealm.display();
+
+		DefaultPlexusContainer container;
+		if (containerBootstrap != null) {
+			container = joinContainerBootstrap();
+		} else {
+			container = createContainer(cliRequest, coreRealm);
+		}
+
+		if (containerReport != null) {
+			slf4jLogger.debug(containerReport);
+		}
+		componentReport.start(cliRequest.debug);
+
+		// NOTE: To avoid inconsistencies, we'll use the TCCL exclusively for lookups
+		container.setLookupRealm(null);
+		Thread.currentThread().setContextClassLoader(container.getContainerRealm());
+
+		if (pooledContainer != null) {
+			pooledContainer.activate(slf4jLoggerFactory);
+		} else {
+			containerLoggerFactory.setDelegate(slf4jLoggerFactory);
+			container.setLoggerManager(plexusLoggerManager);
+		}
+
+		customizeContainer(container);
+
+		// refresh logger in case container got customized by spy
+		slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
+
+		return container;
+	}
+
+	/**
+	 * Runs the request. Components are created by the container on first use,
+	 * so this is the first place where any of them gets instantiated.
+	 */
+	void execute(CliRequest cliRequest, PlexusContainer container) throws Exception {
+		String module = module(cliRequest);
+		ModuleOutput.begin(module);
+		try {
+			DefaultService2 resolver;
+			try (StartupProfiler.Span span = profiler.start("firstLookup")) {
+				resolver = lookup(container, DefaultService2.class);
+			}
+			resolver.doThing();
+			System.out.println(resolver);
+		} finally {
+			ModuleOutput.end(module);
+		}
+	}
+
+	private static String module(CliRequest cliRequest) {
+		File directory = cliRequest.multiModuleProjectDirectory != null ? cliRequest.multiModuleProjectDirectory
+				: new File(cliRequest.workingDirectory);
+		return directory.getName();
+	}
+
+	private ClassRealm coreRealm(CliRequest cliRequest) {
 		if (cliRequest.classWorld == null) {
 			cliRequest.classWorld = new ClassWorld("plexus.core", Thread.currentThread().getContextClassLoader());
+
+			ClassWorldListener realmListener = BootstrapEvents.realmListener();
+			if (realmListener != null) {
+				for (ClassRealm realm : cliRequest.classWorld.getRealms()) {
+					realmListener.realmCreated(realm);
+				}
+				cliRequest.classWorld.addListener(realmListener);
+			}
 		}
 
 		ClassRealm coreRealm = cliRequest.classWorld.getClassRealm("plexus.core");
 		if (coreRealm == null) {
 			coreRealm = cliRequest.classWorld.getRealms().iterator().next();
 		}
+		return coreRealm;
+	}
 
-		coreRealm.display();
+	/**
+	 * Takes a container from the pool or creates it. This only depends on the
+	 * class world, so that it can run on the bootstrap thread: the logger factory
+	 * binding is switched to the one of the request by {@link #container}, and
+	 * messages meant for the request logger are kept in {@link #containerReport}.
+	 */
+	private DefaultPlexusContainer createContainer(CliRequest cliRequest, ClassRealm coreRealm) throws Exception {
+		containerReport = null;
+
+		ContainerPool containerPool = ContainerPool.getInstance();
+		ContainerPool.Key containerKey = null;
+		if (containerPool.isEnabled()) {
+			containerKey = ContainerPool.key(cliRequest.classWorld, coreRealm);
+			pooledContainer = containerPool.acquire(containerKey);
+		}
+
+		if (pooledContainer != null) {
+			containerReport = "Reusing pooled Plexus container";
+			componentReport = pooledContainer.getComponentReport();
+			return pooledContainer.getContainer();
+		}
 
 		ContainerConfiguration cc = new DefaultContainerConfiguration().setClassWorld(cliRequest.classWorld)
 				.setRealm(coreRealm).setClassPathScanning(PlexusConstants.SCANNING_INDEX).setAutoWiring(true)
 				.setJSR250Lifecycle(true).setName("maven");
 
-		DefaultPlexusContainer container = new DefaultPlexusContainer(cc, new AbstractModule() {
+		final ContainerPool.SwitchableLoggerFactory loggerFactory = new ContainerPool.SwitchableLoggerFactory(null);
+		final ComponentReport report = new ComponentReport();
+
+		Module componentsModule = Modules.EMPTY_MODULE;
+		StartupManifest manifest = StartupManifest.getInstance();
+		StartupManifest.Components manifestComponents = manifest != null ? manifest.getComponents(coreRealm) : null;
+		if (manifestComponents != null) {
+			containerReport = "Startup manifest covers realm " + coreRealm.getId() + ": "
+					+ manifestComponents.getClassNames().size() + " components";
+			cc.setClassPathScanning(PlexusConstants.SCANNING_OFF);
+			componentsModule = manifestComponents.asModule();
+		}
+
+		DefaultPlexusContainer container;
+		try (StartupProfiler.Span span = profiler.start("containerConstruction")) {
+			container = new DefaultPlexusContainer(cc, new AbstractModule() {
+				@Override
+				protected void configure() {
+					bind(ILoggerFactory.class).toInstance(loggerFactory);
+					bindListener(Matchers.any(), report);
+				}
+			}, componentsModule);
+		}
+
+		containerLoggerFactory = loggerFactory;
+		componentReport = report;
+		if (containerKey != null) {
+			pooledContainer = new ContainerPool.PooledContainer(containerKey, container, loggerFactory, report);
+		}
+
+		return container;
+	}
+
+	/**
+	 * Starts the creation of the container on a background thread, overlapping
+	 * it with command line parsing, properties and logging setup. The result is
+	 * joined by {@link #container}.
+	 */
+	private void startContainerBootstrap(final CliRequest cliRequest) {
+		final ClassRealm coreRealm = coreRealm(cliRequest);
+
+		FutureTask<DefaultPlexusContainer> task = new FutureTask<>(new Callable<DefaultPlexusContainer>() {
 			@Override
-			protected void configure() {
-				bind(ILoggerFactory.class).toInstance(slf4jLoggerFactory);
+			public DefaultPlexusContainer call() throws Exception {
+				try (StartupProfiler.Span span = profiler.start("containerBootstrap")) {
+					return createContainer(cliRequest, coreRealm);
+				}
 			}
 		});
 
-		// NOTE: To avoid inconsistencies, we'll use the TCCL exclusively for lookups
-		container.setLookupRealm(null);
-		Thread.currentThread().setContextClassLoader(container.getContainerRealm());
-
-		container.setLoggerManager(plexusLoggerManager);
+		Thread thread = new Thread(task, "maven-container-bootstrap");
+		thread.setDaemon(true);
+		thread.start();
 
-		customizeContainer(container);
+		containerBootstrap = task;
+	}
 
-		// refresh logger in case container got customized by spy
-		slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
+	/**
+	 * Help and version requests never need the container, don't build it
+	 * speculatively for them.
+	 */
+	private static boolean isQuery(String[] args) {
+		for (String arg : args) {
+			if ("-h".equals(arg) || "--help".equals(arg) || "-v".equals(arg) || "--version".equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
-		DefaultService2 resolver = container.lookup(DefaultService2.class);
-		resolver.doThing();
-		System.out.println(resolver);
+	private DefaultPlexusContainer joinContainerBootstrap() throws Exception {
+		FutureTask<DefaultPlexusContainer> task = containerBootstrap;
+		containerBootstrap = null;
+
+		try (StartupProfiler.Span span = profiler.start("containerJoin")) {
+			return task.get();
+		} catch (ExecutionException e) {
+			// rethrow as if the container had been created on this thread
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
 
-		return container;
+	private static <T> T lookup(PlexusContainer container, Class<T> role) throws ComponentLookupException {
+		try (StartupProfiler.Span event = BootstrapEvents.lookup(role.getName(), null)) {
+			return container.lookup(role);
+		}
 	}
 
 	void toolchains(CliRequest cliRequest) throws Exception {
@@ -477,7 +945,24 @@ int calculateDegreeOfConcurrencyWithCoreMultiplier(String threadConfiguration) {
 	// ----------------------------------------------------------------------
 
 	static void populateProperties(CommandLine commandLine, Properties systemProperties, Properties userProperties) {
-		EnvironmentUtils.addEnvVars(systemProperties);
+		populateProperties(commandLine, null, systemProperties, userProperties);
+	}
+
+	static void populateProperties(CommandLine commandLine, Map<String, String> environment,
+			Properties systemProperties, Properties userProperties) {
+		systemProperties.putAll(populateProperties(commandLine, environment, userProperties));
+	}
+
+	/**
+	 * Adds the properties set on the command line to the user properties and
+	 * returns the system properties of the request, layered as environment &lt;
+	 * system &lt; user &lt; build information. Neither the environment nor the
+	 * JVM system properties are copied unless the result is enumerated.
+	 */
+	static LayeredProperties populateProperties(CommandLine commandLine, Map<String, String> environment,
+			Properties userProperties) {
+		PropertySource environmentSource = environment != null ? EnvironmentUtils.getEnvVarsSource(environment)
+				: EnvironmentUtils.getEnvVarsSource();
 
 		// ----------------------------------------------------------------------
 		// Options that are set on the command line become system properties
@@ -495,8 +980,6 @@ static void populateProperties(CommandLine commandLine, Properties systemPropert
 			}
 		}
 
-		SystemProperties.addSystemProperties(systemProperties);
-
 		// ----------------------------------------------------------------------
 		// Properties containing info about the currently running version of Maven
 		// These override any corresponding properties set on the command line
@@ -506,10 +989,40 @@ static void populateProperties(CommandLine commandLine, Properties systemPropert
 
 		String mavenVersion = buildProperties.getProperty(CLIReportingUtils.BUILD_VERSION_PROPERTY);
 		System.out.println(mavenVersion);
-		systemProperties.setProperty("maven.version", mavenVersion);
+		Properties buildInfo = new Properties();
+		buildInfo.setProperty("maven.version", mavenVersion);
 
 		String mavenBuildVersion = CLIReportingUtils.createMavenVersionString(buildProperties);
-		systemProperties.setProperty("maven.build.version", mavenBuildVersion);
+		buildInfo.setProperty("maven.build.version", mavenBuildVersion);
+
+		return new LayeredProperties(environmentSource, SystemProperties.getSystemPropertiesSource(),
+				LayeredProperties.source("user", userProperties), LayeredProperties.source("build", buildInfo));
+	}
+
+	/**
+	 * Replaces the references in the user properties, set by -D options on the
+	 * command line and in .mvn/maven.config, by their values in the request
+	 * properties, also in the system properties set by
+	 * {@link #setCliProperty(String, Properties)}. References to undefined
+	 * properties are left for the interpolation of the project models.
+	 */
+	static void interpolateCliProperties(Properties userProperties, PropertyInterpolator interpolator) {
+		Map<String, String> interpolated = new LinkedHashMap<>();
+		for (String name : userProperties.stringPropertyNames()) {
+			String raw = userProperties.getProperty(name);
+			String value = interpolator.interpolate(raw);
+			if (!raw.equals(value)) {
+				interpolated.put(name, value);
+			}
+		}
+
+		for (Map.Entry<String, String> entry : interpolated.entrySet()) {
+			String raw = userProperties.getProperty(entry.getKey());
+			userProperties.setProperty(entry.getKey(), entry.getValue());
+			if (raw.equals(System.getProperty(entry.getKey()))) {
+				System.setProperty(entry.getKey(), entry.getValue());
+			}
+		}
 	}
 
 	private static void setCliProperty(String property, Properties properties) {
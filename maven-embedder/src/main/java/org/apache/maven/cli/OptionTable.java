@@ -0,0 +1,464 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.MissingArgumentException;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.UnrecognizedOptionException;
+
+/**
+ * Immutable snapshot of the options of a {@link CLIManager}, with a parser producing the same {@link CommandLine} as
+ * {@link CleanArgument#cleanArgs(String[])} followed by <code>GnuParser</code>, in a single pass over the arguments.
+ * Unlike <code>GnuParser</code>, parsing never mutates the <code>Options</code>, so a table can be shared between
+ * threads, and the resulting command line looks options up by name in constant time.
+ * <p>
+ * The quirks of the commons-cli path are kept on purpose: quoted arguments are rejoined the way
+ * <code>cleanArgs</code> does, <code>-Dkey=value</code> and <code>--long=value</code> are split, an unknown option
+ * whose first two characters are a known option is split after them, an option value is the next token unless that
+ * token is a known option, and everything after <code>--</code> is an argument.
+ */
+final class OptionTable
+{
+    /**
+     * Options by name, with and without their leading hyphens so that tokens are looked up without copying them.
+     * Never modified after construction.
+     */
+    private final Map<String, Option> options = new HashMap<>();
+
+    OptionTable( Options definitions )
+    {
+        for ( Option option : definitions.getOptions() )
+        {
+            if ( option.getOpt() != null )
+            {
+                register( option.getOpt(), option );
+            }
+        }
+        // short names take precedence, as in Options.getOption
+        for ( Option option : definitions.getOptions() )
+        {
+            if ( option.getLongOpt() != null && !options.containsKey( option.getLongOpt() ) )
+            {
+                register( option.getLongOpt(), option );
+            }
+        }
+    }
+
+    private void register( String name, Option option )
+    {
+        options.put( name, option );
+        options.put( "-" + name, option );
+        options.put( "--" + name, option );
+    }
+
+    /**
+     * @return the option named by the token once its leading hyphens are stripped, as in Options.getOption
+     */
+    private Option find( String token )
+    {
+        return options.get( token );
+    }
+
+    CommandLine parse( String[] args )
+        throws ParseException
+    {
+        Parse parse = new Parse();
+
+        // CleanArgument: rejoin arguments split inside quotes
+        StringBuilder currentArg = null;
+        for ( String arg : args )
+        {
+            if ( arg.startsWith( "\"" ) )
+            {
+                if ( currentArg != null )
+                {
+                    parse.argument( currentArg.toString() );
+                }
+
+                currentArg = new StringBuilder( arg.substring( 1 ) );
+                if ( arg.endsWith( "\"" ) )
+                {
+                    // fails on a lone quote, as cleanArgs does
+                    currentArg.setLength( currentArg.length() - 1 );
+                    parse.argument( currentArg.toString() );
+                    currentArg = null;
+                }
+            }
+            else if ( currentArg != null )
+            {
+                currentArg.append( ' ' ).append( arg );
+            }
+            else
+            {
+                parse.argument( arg );
+            }
+        }
+        if ( currentArg != null )
+        {
+            parse.argument( currentArg.toString() );
+        }
+
+        return parse.end();
+    }
+
+    private static String stripLeadingHyphens( String str )
+    {
+        if ( str.startsWith( "--" ) )
+        {
+            return str.substring( 2 );
+        }
+        else if ( str.startsWith( "-" ) )
+        {
+            return str.substring( 1 );
+        }
+        return str;
+    }
+
+    private static String stripLeadingAndTrailingQuotes( String str )
+    {
+        int length = str.length();
+        if ( length > 1 && str.startsWith( "\"" ) && str.endsWith( "\"" )
+            && str.substring( 1, length - 1 ).indexOf( '"' ) == -1 )
+        {
+            return str.substring( 1, length - 1 );
+        }
+        return str;
+    }
+
+    /**
+     * State of one parse: GnuParser flattening and Parser option processing, fed one cleaned argument at a time.
+     */
+    private final class Parse
+    {
+        private final ParsedCommandLine commandLine = new ParsedCommandLine();
+
+        /** flattening stopped at "--", even if it ends up being an option value */
+        private boolean flattenTheRest;
+
+        private boolean eatTheRest;
+
+        /** option waiting for its value, from the previous token */
+        private ParsedOption pending;
+
+        /** first parse error, only thrown once all arguments are cleaned since cleanArgs runs first */
+        private ParseException failure;
+
+        void argument( String arg )
+        {
+            if ( failure != null )
+            {
+                return;
+            }
+
+            // GnuParser.flatten
+            if ( "--".equals( arg ) )
+            {
+                flattenTheRest = true;
+            }
+            if ( flattenTheRest || "-".equals( arg ) || !arg.startsWith( "-" ) )
+            {
+                token( arg );
+                return;
+            }
+
+            // GnuParser strips hyphens before calling Options.hasOption, which strips them again
+            String opt = stripLeadingHyphens( arg );
+            if ( find( opt ) != null )
+            {
+                token( arg );
+                return;
+            }
+
+            int eq = opt.indexOf( '=' );
+            if ( eq != -1 && find( opt.substring( 0, eq ) ) != null )
+            {
+                int argEq = arg.indexOf( '=' );
+                token( arg.substring( 0, argEq ) );
+                token( arg.substring( argEq + 1 ) );
+            }
+            else if ( find( arg.substring( 0, 2 ) ) != null )
+            {
+                token( arg.substring( 0, 2 ) );
+                token( arg.substring( 2 ) );
+            }
+            else
+            {
+                token( arg );
+            }
+        }
+
+        private void token( String token )
+        {
+            if ( failure != null )
+            {
+                return;
+            }
+
+            if ( eatTheRest )
+            {
+                if ( !"--".equals( token ) )
+                {
+                    commandLine.addArg( token );
+                }
+                return;
+            }
+
+            if ( pending != null )
+            {
+                if ( !( token.startsWith( "-" ) && find( token ) != null ) )
+                {
+                    pending.values.add( stripLeadingAndTrailingQuotes( token ) );
+                    pending = null;
+                    return;
+                }
+                endPending();
+                if ( failure != null )
+                {
+                    return;
+                }
+            }
+
+            if ( "--".equals( token ) )
+            {
+                eatTheRest = true;
+            }
+            else if ( "-".equals( token ) || !token.startsWith( "-" ) )
+            {
+                commandLine.addArg( token );
+            }
+            else
+            {
+                Option definition = find( token );
+                if ( definition == null )
+                {
+                    failure = new UnrecognizedOptionException( "Unrecognized option: " + token, token );
+                    return;
+                }
+
+                ParsedOption option = new ParsedOption( definition );
+                commandLine.addOption( option );
+                if ( definition.hasArg() )
+                {
+                    pending = option;
+                }
+            }
+        }
+
+        private void endPending()
+        {
+            ParsedOption option = pending;
+            pending = null;
+            if ( option.values.isEmpty() && !option.hasOptionalArg() )
+            {
+                failure = new MissingArgumentException( option );
+            }
+        }
+
+        CommandLine end()
+            throws ParseException
+        {
+            if ( pending != null && failure == null )
+            {
+                endPending();
+            }
+            if ( failure != null )
+            {
+                throw failure;
+            }
+            return commandLine;
+        }
+    }
+
+    /**
+     * Parsed occurrence of an option. Option values can only be set by commons-cli parsers, so they are kept here.
+     */
+    private static final class ParsedOption
+        extends Option
+    {
+        private static final long serialVersionUID = 1L;
+
+        private List<String> values = new ArrayList<>( 1 );
+
+        ParsedOption( Option definition )
+        {
+            super( definition.getOpt(), definition.getLongOpt(), definition.hasArg(), definition.getDescription() );
+            setOptionalArg( definition.hasOptionalArg() );
+            setArgName( definition.getArgName() );
+        }
+
+        @Override
+        public String getValue()
+        {
+            return values.isEmpty() ? null : values.get( 0 );
+        }
+
+        @Override
+        public String getValue( int index )
+        {
+            return values.isEmpty() ? null : values.get( index );
+        }
+
+        @Override
+        public String getValue( String defaultValue )
+        {
+            String value = getValue();
+            return value != null ? value : defaultValue;
+        }
+
+        @Override
+        public String[] getValues()
+        {
+            return values.isEmpty() ? null : values.toArray( new String[values.size()] );
+        }
+
+        @Override
+        public List<String> getValuesList()
+        {
+            return values;
+        }
+
+        @Override
+        public Object clone()
+        {
+            ParsedOption option = (ParsedOption) super.clone();
+            option.values = new ArrayList<>( values );
+            return option;
+        }
+    }
+
+    /**
+     * Command line indexing its options by short and long name.
+     */
+    private static final class ParsedCommandLine
+        extends CommandLine
+    {
+        private static final long serialVersionUID = 1L;
+
+        /** occurrences of the parsed options, by short and long name */
+        private final Map<String, List<Option>> byName = new HashMap<>();
+
+        // overridden to be callable from OptionTable
+        @Override
+        protected void addArg( String arg )
+        {
+            super.addArg( arg );
+        }
+
+        @Override
+        protected void addOption( Option option )
+        {
+            super.addOption( option );
+            index( option.getOpt(), option );
+            if ( option.getLongOpt() != null && !option.getLongOpt().equals( option.getOpt() ) )
+            {
+                index( option.getLongOpt(), option );
+            }
+        }
+
+        private void index( String name, Option option )
+        {
+            List<Option> occurrences = byName.get( name );
+            if ( occurrences == null )
+            {
+                occurrences = new ArrayList<>( 1 );
+                byName.put( name, occurrences );
+            }
+            occurrences.add( option );
+        }
+
+        @Override
+        public boolean hasOption( String opt )
+        {
+            return byName.containsKey( stripLeadingHyphens( opt ) );
+        }
+
+        @Override
+        public boolean hasOption( char opt )
+        {
+            return hasOption( String.valueOf( opt ) );
+        }
+
+        @Override
+        public String[] getOptionValues( String opt )
+        {
+            List<Option> occurrences = byName.get( opt );
+            if ( occurrences == null )
+            {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            for ( Option option : occurrences )
+            {
+                values.addAll( option.getValuesList() );
+            }
+            return values.isEmpty() ? null : values.toArray( new String[values.size()] );
+        }
+
+        @Override
+        public String[] getOptionValues( char opt )
+        {
+            return getOptionValues( String.valueOf( opt ) );
+        }
+
+        @Override
+        public String getOptionValue( String opt )
+        {
+            List<Option> occurrences = byName.get( opt );
+            if ( occurrences != null )
+            {
+                for ( Option option : occurrences )
+                {
+                    if ( !option.getValuesList().isEmpty() )
+                    {
+                        return option.getValuesList().get( 0 );
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getOptionValue( char opt )
+        {
+            return getOptionValue( String.valueOf( opt ) );
+        }
+
+        @Override
+        public String getOptionValue( String opt, String defaultValue )
+        {
+            String value = getOptionValue( opt );
+            return value != null ? value : defaultValue;
+        }
+
+        @Override
+        public String getOptionValue( char opt, String defaultValue )
+        {
+            return getOptionValue( String.valueOf( opt ), defaultValue );
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.apache.maven.cli.configuration;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.ParseException;
+import org.apache.maven.cli.CLIManager;
+import org.apache.maven.cli.internal.extension.model.CoreExtension;
+import org.apache.maven.cli.internal.extension.model.io.xpp3.CoreExtensionsXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * The configuration found in the <code>.mvn</code> directory of a multi-module project: <code>maven.config</code>,
+ * <code>jvm.config</code> and <code>extensions.xml</code>. Each file is read and parsed on first access only, so an
+ * instance kept by {@link ProjectConfigurationCache} serves repeated builds of the same checkout without any I/O.
+ *
+ * @since 3.6.4
+ */
+public class ProjectConfiguration
+{
+    public static final String MAVEN_CONFIG = "maven.config";
+
+    public static final String JVM_CONFIG = "jvm.config";
+
+    public static final String EXTENSIONS = "extensions.xml";
+
+    private final File directory;
+
+    private final File mvnDirectory;
+
+    /**
+     * File stamps taken before each file was read, in the order the files were read.
+     */
+    private final Map<String, Stamp> stamps = new LinkedHashMap<>();
+
+    private CommandLine mavenConfig;
+
+    private List<String> jvmConfig;
+
+    private List<CoreExtension> coreExtensions;
+
+    public ProjectConfiguration( File multiModuleProjectDirectory )
+    {
+        this.directory = multiModuleProjectDirectory;
+        this.mvnDirectory = new File( multiModuleProjectDirectory, ".mvn" );
+    }
+
+    public File getMultiModuleProjectDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns the options of <code>.mvn/maven.config</code>.
+     *
+     * @return the parsed options, or <code>null</code> if the project has no <code>maven.config</code>
+     * @throws ParseException if the file contains invalid or unrecognized entries
+     */
+    public synchronized CommandLine getMavenConfig()
+        throws IOException, ParseException
+    {
+        if ( !stamps.containsKey( MAVEN_CONFIG ) )
+        {
+            Stamp stamp = Stamp.of( new File( mvnDirectory, MAVEN_CONFIG ) );
+
+            CommandLine commandLine = null;
+            if ( stamp.exists )
+            {
+                List<String> args = readArguments( new File( mvnDirectory, MAVEN_CONFIG ) );
+
+                commandLine = CLIManager.getInstance().parse( args.toArray( new String[0] ) );
+                List<?> unrecognized = commandLine.getArgList();
+                if ( !unrecognized.isEmpty() )
+                {
+                    throw new ParseException( "Unrecognized maven.config entries: " + unrecognized );
+                }
+            }
+
+            mavenConfig = commandLine;
+            stamps.put( MAVEN_CONFIG, stamp );
+        }
+        return mavenConfig;
+    }
+
+    /**
+     * Returns the JVM options of <code>.mvn/jvm.config</code>, split on whitespace like the launcher scripts do.
+     *
+     * @return the JVM options, empty if the project has no <code>jvm.config</code>
+     */
+    public synchronized List<String> getJvmConfig()
+        throws IOException
+    {
+        if ( !stamps.containsKey( JVM_CONFIG ) )
+        {
+            Stamp stamp = Stamp.of( new File( mvnDirectory, JVM_CONFIG ) );
+
+            List<String> args = Collections.emptyList();
+            if ( stamp.exists )
+            {
+                args = Collections.unmodifiableList( readArguments( new File( mvnDirectory, JVM_CONFIG ) ) );
+            }
+
+            jvmConfig = args;
+            stamps.put( JVM_CONFIG, stamp );
+        }
+        return jvmConfig;
+    }
+
+    /**
+     * Returns the core extensions declared in <code>.mvn/extensions.xml</code>.
+     *
+     * @return the core extensions, empty if the project has no <code>extensions.xml</code>
+     */
+    public synchronized List<CoreExtension> getCoreExtensions()
+        throws IOException, XmlPullParserException
+    {
+        if ( !stamps.containsKey( EXTENSIONS ) )
+        {
+            File file = new File( mvnDirectory, EXTENSIONS );
+            Stamp stamp = Stamp.of( file );
+
+            List<CoreExtension> extensions = Collections.emptyList();
+            if ( stamp.exists )
+            {
+                try ( InputStream is = Files.newInputStream( file.toPath() ) )
+                {
+                    extensions =
+                        Collections.unmodifiableList( new CoreExtensionsXpp3Reader().read( is ).getExtensions() );
+                }
+            }
+
+            coreExtensions = extensions;
+            stamps.put( EXTENSIONS, stamp );
+        }
+        return coreExtensions;
+    }
+
+    /**
+     * Checks the modification time and size of every file read so far against the file system.
+     *
+     * @return <code>true</code> if none of the files read so far has been created, changed or deleted since
+     */
+    synchronized boolean isUpToDate()
+    {
+        for ( Map.Entry<String, Stamp> entry : stamps.entrySet() )
+        {
+            if ( !entry.getValue().equals( Stamp.of( new File( mvnDirectory, entry.getKey() ) ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> readArguments( File file )
+        throws IOException
+    {
+        List<String> args = new ArrayList<>();
+        for ( String arg : new String( Files.readAllBytes( file.toPath() ) ).split( "\\s+" ) )
+        {
+            if ( !arg.isEmpty() )
+            {
+                args.add( arg );
+            }
+        }
+        return args;
+    }
+
+    private static final class Stamp
+    {
+        final boolean exists;
+
+        final long lastModified;
+
+        final long length;
+
+        private Stamp( boolean exists, long lastModified, long length )
+        {
+            this.exists = exists;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        static Stamp of( File file )
+        {
+            // lastModified() and length() are 0 for missing files
+            return new Stamp( file.isFile(), file.lastModified(), file.length() );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( !( obj instanceof Stamp ) )
+            {
+                return false;
+            }
+            Stamp that = (Stamp) obj;
+            return exists == that.exists && lastModified == that.lastModified && length == that.length;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (int) ( lastModified ^ length );
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.apache.maven.cli.configuration;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the {@link ProjectConfiguration} of recently built projects, keyed by multi-module project directory, so
+ * that daemon and embedded builds of the same checkout neither read nor parse <code>.mvn</code> again.
+ * <p>
+ * Checking an entry compares the modification time and size of the files it has read. As a change within the
+ * granularity of the file system clock can keep both, entries are also invalidated through a {@link WatchService}
+ * on the project directory and its <code>.mvn</code> directory where the platform has native file watching. The
+ * events are delivered asynchronously, so they only ever add to the comparison and never replace it.
+ *
+ * @since 3.6.4
+ */
+public final class ProjectConfigurationCache
+{
+    /**
+     * The system property enabling the cache for {@link org.apache.maven.cli.MavenCli}, <code>false</code> by default.
+     */
+    public static final String ENABLED_PROPERTY = "maven.projectConfiguration.cache";
+
+    private static final int MAX_PROJECTS = 16;
+
+    private static final Set<String> CONFIGURATION_FILES = new HashSet<>( Arrays.asList(
+        ProjectConfiguration.MAVEN_CONFIG, ProjectConfiguration.JVM_CONFIG, ProjectConfiguration.EXTENSIONS ) );
+
+    private static final ProjectConfigurationCache INSTANCE = new ProjectConfigurationCache();
+
+    private final Map<File, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private WatchService watchService;
+
+    private boolean watchServiceUnavailable;
+
+    public static ProjectConfigurationCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean( ENABLED_PROPERTY );
+    }
+
+    /**
+     * Returns the configuration of the given project, reusing the cached one if its files have not changed.
+     *
+     * @param multiModuleProjectDirectory the canonical multi-module project directory
+     * @return the project configuration, never <code>null</code>
+     */
+    public synchronized ProjectConfiguration get( File multiModuleProjectDirectory )
+    {
+        Entry entry = entries.get( multiModuleProjectDirectory );
+        if ( entry != null )
+        {
+            if ( entry.isValid() )
+            {
+                return entry.configuration;
+            }
+            entries.remove( multiModuleProjectDirectory );
+            entry.cancel();
+        }
+
+        entry = new Entry( multiModuleProjectDirectory );
+        entries.put( multiModuleProjectDirectory, entry );
+
+        if ( entries.size() > MAX_PROJECTS )
+        {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next().cancel();
+            eldest.remove();
+        }
+
+        return entry.configuration;
+    }
+
+    /**
+     * Drops all cached configurations.
+     */
+    public synchronized void clear()
+    {
+        for ( Entry entry : entries.values() )
+        {
+            entry.cancel();
+        }
+        entries.clear();
+    }
+
+    private WatchService getWatchService()
+    {
+        if ( watchService == null && !watchServiceUnavailable )
+        {
+            try
+            {
+                WatchService service = FileSystems.getDefault().newWatchService();
+                // the JDK falls back to scanning directories every few seconds where the OS offers no notifications,
+                // which would only repeat the comparison of the files at a much higher cost
+                if ( service.getClass().getName().endsWith( ".PollingWatchService" ) )
+                {
+                    service.close();
+                    watchServiceUnavailable = true;
+                }
+                else
+                {
+                    watchService = service;
+                }
+            }
+            catch ( IOException | UnsupportedOperationException e )
+            {
+                watchServiceUnavailable = true;
+            }
+        }
+        return watchService;
+    }
+
+    private final class Entry
+    {
+        final ProjectConfiguration configuration;
+
+        private WatchKey projectKey;
+
+        private WatchKey mvnKey;
+
+        Entry( File multiModuleProjectDirectory )
+        {
+            // register before anything is read, so that no change can slip in between
+            WatchService service = getWatchService();
+            if ( service != null )
+            {
+                try
+                {
+                    Path directory = multiModuleProjectDirectory.toPath();
+                    projectKey = directory.register( service, StandardWatchEventKinds.ENTRY_CREATE,
+                                                     StandardWatchEventKinds.ENTRY_DELETE );
+
+                    File mvnDirectory = new File( multiModuleProjectDirectory, ".mvn" );
+                    if ( mvnDirectory.isDirectory() )
+                    {
+                        mvnKey = mvnDirectory.toPath().register( service, StandardWatchEventKinds.ENTRY_CREATE,
+                                                                 StandardWatchEventKinds.ENTRY_DELETE,
+                                                                 StandardWatchEventKinds.ENTRY_MODIFY );
+                    }
+                }
+                catch ( IOException | RuntimeException e )
+                {
+                    cancel();
+                }
+            }
+
+            configuration = new ProjectConfiguration( multiModuleProjectDirectory );
+        }
+
+        boolean isValid()
+        {
+            // note that both keys must be drained and reset whatever the outcome of the first one
+            boolean changed = false;
+            if ( projectKey != null )
+            {
+                changed = hasChanged( projectKey, Collections.singleton( ".mvn" ) );
+            }
+            if ( mvnKey != null )
+            {
+                changed |= hasChanged( mvnKey, CONFIGURATION_FILES );
+            }
+            return !changed && configuration.isUpToDate();
+        }
+
+        private boolean hasChanged( WatchKey key, Collection<String> names )
+        {
+            boolean changed = false;
+            for ( WatchEvent<?> event : key.pollEvents() )
+            {
+                if ( event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || names.contains( String.valueOf( event.context() ) ) )
+                {
+                    changed = true;
+                }
+            }
+            // a key that cannot be reset no longer watches anything, e.g. because the directory was deleted
+            return !key.reset() || changed;
+        }
+
+        void cancel()
+        {
+            if ( projectKey != null )
+            {
+                projectKey.cancel();
+                projectKey = null;
+            }
+            if ( mvnKey != null )
+            {
+                mvnKey.cancel();
+                mvnKey = null;
+            }
+        }
+    }
+}
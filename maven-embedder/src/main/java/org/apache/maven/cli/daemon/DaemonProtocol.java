@@ -0,0 +1,371 @@
+package org.apache.maven.cli.daemon;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.maven.cli.MavenCli;
+
+/**
+ * Wire format shared by {@link MavenDaemon} and {@link MavenDaemonClient}.
+ * <p>
+ * A connection starts with a handshake authenticating both ends with the token of the registry file, which never goes
+ * on the wire: the client sends the magic and a nonce, the daemon answers with its own nonce and a MAC of the client
+ * nonce, which the client checks before sending anything else, and the client sends a MAC of the daemon nonce.
+ * The request follows, sent once by the client: working directory, multi-module project directory, arguments and
+ * environment. The daemon answers with a sequence of frames, each starting with a frame type byte: stdout and stderr
+ * frames carry a chunk of output, the final exit frame carries the exit code of the build.
+ * <p>
+ * Lengths and counts read from the wire are bounded, so that a corrupted or hostile peer cannot exhaust the heap.
+ *
+ * @since 3.6.4
+ */
+final class DaemonProtocol
+{
+    static final int MAGIC = 0x4d564e44;
+
+    static final byte FRAME_STDOUT = 1;
+
+    static final byte FRAME_STDERR = 2;
+
+    static final byte FRAME_EXIT = 3;
+
+    static final String REGISTRY_PROPERTY = "maven.daemon.registry";
+
+    static final String PORT = "port";
+
+    static final String TOKEN = "token";
+
+    static final int NONCE_BYTES = 16;
+
+    /**
+     * The length of a MAC, HMAC-SHA256.
+     */
+    static final int PROOF_BYTES = 32;
+
+    static final byte[] SERVER_PROOF = { 'S' };
+
+    static final byte[] CLIENT_PROOF = { 'C' };
+
+    /**
+     * The time allowed to the other end to send the handshake and the request, in milliseconds.
+     */
+    static final int HANDSHAKE_TIMEOUT = (int) TimeUnit.SECONDS.toMillis( 30 );
+
+    static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    /**
+     * The maximum number of arguments, and of environment variables, of a request.
+     */
+    static final int MAX_COUNT = 64 * 1024;
+
+    /**
+     * The maximum payload of an output frame, larger writes are split.
+     */
+    static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private DaemonProtocol()
+    {
+    }
+
+    /**
+     * @return the file where a running daemon publishes its port and token, <code>~/.m2/daemon.properties</code> unless
+     *         overridden with <code>-Dmaven.daemon.registry</code>
+     */
+    static File getRegistryFile()
+    {
+        String registry = System.getProperty( REGISTRY_PROPERTY );
+        return registry != null ? new File( registry )
+                        : new File( MavenCli.USER_MAVEN_CONFIGURATION_HOME, "daemon.properties" );
+    }
+
+    static Properties readRegistry( File registryFile )
+        throws IOException
+    {
+        Properties registry = new Properties();
+        try ( InputStream is = new FileInputStream( registryFile ) )
+        {
+            registry.load( is );
+        }
+        return registry;
+    }
+
+    /**
+     * Publishes the port and the token of a daemon. The token is the only thing preventing other local users from
+     * running builds as us, so it is written to a file only the owner can access from its creation, which then
+     * replaces the registry file atomically.
+     *
+     * @throws IOException if the file cannot be written, or if its access cannot be restricted to the owner
+     */
+    static void writeRegistry( File registryFile, int port, String token )
+        throws IOException
+    {
+        Path file = registryFile.getAbsoluteFile().toPath();
+        Path directory = Files.createDirectories( file.getParent() );
+
+        Properties registry = new Properties();
+        registry.setProperty( PORT, Integer.toString( port ) );
+        registry.setProperty( TOKEN, token );
+
+        Path tmp = createOwnerOnlyFile( directory, file.getFileName().toString() );
+        try
+        {
+            try ( OutputStream os = Files.newOutputStream( tmp ) )
+            {
+                registry.store( os, "Maven daemon" );
+            }
+            Files.move( tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+        }
+        finally
+        {
+            Files.deleteIfExists( tmp );
+        }
+    }
+
+    private static Path createOwnerOnlyFile( Path directory, String prefix )
+        throws IOException
+    {
+        FileStore store = Files.getFileStore( directory );
+        if ( store.supportsFileAttributeView( PosixFileAttributeView.class ) )
+        {
+            return Files.createTempFile( directory, prefix, ".tmp", PosixFilePermissions.asFileAttribute(
+                EnumSet.of( PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE ) ) );
+        }
+        if ( store.supportsFileAttributeView( AclFileAttributeView.class ) )
+        {
+            // still empty until its ACL only grants access to the owner
+            Path file = Files.createTempFile( directory, prefix, ".tmp" );
+            try
+            {
+                AclFileAttributeView view = Files.getFileAttributeView( file, AclFileAttributeView.class );
+                view.setAcl( Collections.singletonList( AclEntry.newBuilder().setType( AclEntryType.ALLOW )
+                    .setPrincipal( view.getOwner() ).setPermissions( EnumSet.allOf( AclEntryPermission.class ) )
+                    .build() ) );
+                return file;
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                Files.deleteIfExists( file );
+                throw e;
+            }
+        }
+        throw new IOException( "Unable to restrict the access to files of " + directory + " to their owner" );
+    }
+
+    static byte[] newNonce( SecureRandom random )
+    {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes( nonce );
+        return nonce;
+    }
+
+    /**
+     * @param token the token of the registry file
+     * @param side {@link #SERVER_PROOF} or {@link #CLIENT_PROOF}, so that a proof cannot be sent back to its emitter
+     * @param nonce the nonce of the other end
+     * @return the proof that the sender knows the token
+     */
+    static byte[] proof( String token, byte[] side, byte[] nonce )
+        throws IOException
+    {
+        try
+        {
+            Mac mac = Mac.getInstance( MAC_ALGORITHM );
+            mac.init( new SecretKeySpec( token.getBytes( StandardCharsets.UTF_8 ), MAC_ALGORITHM ) );
+            mac.update( side );
+            return mac.doFinal( nonce );
+        }
+        catch ( GeneralSecurityException e )
+        {
+            throw new IOException( "Unable to authenticate: " + e.getMessage(), e );
+        }
+    }
+
+    static byte[] readBytes( DataInputStream in, int length )
+        throws IOException
+    {
+        byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return bytes;
+    }
+
+    /**
+     * @return a count of arguments or of environment variables
+     */
+    static int readCount( DataInputStream in )
+        throws IOException
+    {
+        return checkLength( in.readInt(), MAX_COUNT, "count" );
+    }
+
+    static int readFrameLength( DataInputStream in )
+        throws IOException
+    {
+        return checkLength( in.readInt(), MAX_FRAME_LENGTH, "frame length" );
+    }
+
+    private static int checkLength( int length, int max, String what )
+        throws IOException
+    {
+        if ( length < 0 || length > max )
+        {
+            throw new IOException( "Invalid " + what + " " + length );
+        }
+        return length;
+    }
+
+    static void writeString( DataOutputStream out, String value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            out.writeInt( -1 );
+        }
+        else
+        {
+            byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+            checkLength( bytes.length, MAX_STRING_LENGTH, "string length" );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+    }
+
+    static String readString( DataInputStream in )
+        throws IOException
+    {
+        int length = in.readInt();
+        if ( length == -1 )
+        {
+            return null;
+        }
+        return new String( readBytes( in, checkLength( length, MAX_STRING_LENGTH, "string length" ) ),
+                           StandardCharsets.UTF_8 );
+    }
+
+    static String readRequiredString( DataInputStream in, String what )
+        throws IOException
+    {
+        String value = readString( in );
+        if ( value == null )
+        {
+            throw new IOException( "Malformed request: missing " + what );
+        }
+        return value;
+    }
+
+    /**
+     * Output stream sending everything written to it as frames of the given type.
+     */
+    static final class FrameOutputStream
+        extends OutputStream
+    {
+        private final DataOutputStream out;
+
+        private final byte type;
+
+        FrameOutputStream( DataOutputStream out, byte type )
+        {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            // stdout and stderr frames are interleaved on the same socket
+            synchronized ( out )
+            {
+                for ( int n = 0; n < len; n += MAX_FRAME_LENGTH )
+                {
+                    int length = Math.min( len - n, MAX_FRAME_LENGTH );
+                    out.writeByte( type );
+                    out.writeInt( length );
+                    out.write( b, off + n, length );
+                }
+            }
+        }
+
+        @Override
+        public void flush()
+            throws IOException
+        {
+            synchronized ( out )
+            {
+                out.flush();
+            }
+        }
+    }
+
+    static void checkMagic( DataInputStream in )
+        throws IOException
+    {
+        int magic;
+        try
+        {
+            magic = in.readInt();
+        }
+        catch ( EOFException e )
+        {
+            throw new IOException( "Connection closed before request was received" );
+        }
+        if ( magic != MAGIC )
+        {
+            throw new IOException( "Not a Maven daemon request" );
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package org.apache.maven.cli.daemon;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.cli.MavenCli;
+import org.apache.maven.cli.configuration.ProjectConfigurationCache;
+import org.apache.maven.cli.internal.ContainerPool;
+import org.apache.maven.properties.internal.EnvironmentSnapshot;
+import org.apache.maven.properties.internal.EnvironmentStore;
+import org.apache.maven.properties.internal.SystemProperties;
+import org.codehaus.plexus.classworlds.ClassWorld;
+
+/**
+ * Long-lived server JVM running builds on behalf of {@link MavenDaemonClient}, so that class loading, the core
+ * realm and JIT compiled code are kept warm between invocations.
+ * <p>
+ * The daemon listens on the loopback interface only and publishes its port together with a random token in the
+ * registry file (see {@link DaemonProtocol#getRegistryFile()}); clients not proving they know that token are rejected,
+ * and the daemon proves it knows it before the client sends its request.
+ * Builds are run through {@link MavenCli#doMain(String[], String, File, Map, PrintStream, PrintStream)}, which
+ * disposes the realms created by each build. By default builds run one at a time and the system properties are
+ * restored after each build; with more than one thread (see {@link #THREADS_PROPERTY}) builds run concurrently, each
+ * in its own {@link MavenCli#CONCURRENT_EXECUTION_PROPERTY request scope}. The Plexus container is kept in the
+ * {@link ContainerPool} between builds, with a default pool size of one container per thread, and the
+ * <code>.mvn</code> configuration of each project in the {@link ProjectConfigurationCache}.
+ *
+ * @since 3.6.4
+ */
+public class MavenDaemon
+{
+    public static final String IDLE_TIMEOUT_PROPERTY = "maven.daemon.idleTimeout";
+
+    /**
+     * The number of builds run at the same time, 1 by default.
+     */
+    public static final String THREADS_PROPERTY = "maven.daemon.threads";
+
+    private static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.HOURS.toMillis( 3 );
+
+    private static final int TOKEN_BYTES = 16;
+
+    /**
+     * The number of connections queued while the daemon is busy.
+     */
+    private static final int BACKLOG = 50;
+
+    private final ClassWorld classWorld;
+
+    private final File registryFile;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final String token;
+
+    private final long idleTimeout;
+
+    private final int threads;
+
+    private final AtomicInteger activeBuilds = new AtomicInteger();
+
+    public MavenDaemon( ClassWorld classWorld, File registryFile, long idleTimeout )
+    {
+        this( classWorld, registryFile, idleTimeout, 1 );
+    }
+
+    /**
+     * @param threads the number of builds run at the same time, more than 1 requires
+     *            {@link MavenCli#CONCURRENT_EXECUTION_PROPERTY} to be set
+     */
+    public MavenDaemon( ClassWorld classWorld, File registryFile, long idleTimeout, int threads )
+    {
+        this.classWorld = classWorld;
+        this.registryFile = registryFile;
+        this.idleTimeout = idleTimeout;
+        this.threads = threads;
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes( bytes );
+        StringBuilder hex = new StringBuilder( TOKEN_BYTES * 2 );
+        for ( byte b : bytes )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        this.token = hex.toString();
+    }
+
+    public static void main( String[] args )
+    {
+        System.exit( main( args, null ) );
+    }
+
+    public static int main( String[] args, ClassWorld classWorld )
+    {
+        long idleTimeout = Long.getLong( IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT );
+        int threads = Math.max( 1, Integer.getInteger( THREADS_PROPERTY, 1 ) );
+
+        if ( classWorld == null )
+        {
+            // pooled containers are keyed by core realm, so all builds must share the same class world
+            classWorld = new ClassWorld( "plexus.core", Thread.currentThread().getContextClassLoader() );
+        }
+
+        // keep the containers of the previous builds warm unless configured otherwise
+        if ( System.getProperty( ContainerPool.SIZE_PROPERTY ) == null )
+        {
+            System.setProperty( ContainerPool.SIZE_PROPERTY, Integer.toString( threads ) );
+        }
+        if ( threads > 1 )
+        {
+            System.setProperty( MavenCli.CONCURRENT_EXECUTION_PROPERTY, "true" );
+        }
+        if ( System.getProperty( ProjectConfigurationCache.ENABLED_PROPERTY ) == null )
+        {
+            System.setProperty( ProjectConfigurationCache.ENABLED_PROPERTY, "true" );
+        }
+
+        MavenDaemon daemon = new MavenDaemon( classWorld, DaemonProtocol.getRegistryFile(), idleTimeout, threads );
+
+        try
+        {
+            daemon.run();
+            return 0;
+        }
+        catch ( IOException e )
+        {
+            System.err.println( "Maven daemon failed: " + e.getMessage() );
+            return 1;
+        }
+    }
+
+    /**
+     * Serves requests until the daemon has been idle for longer than the idle timeout.
+     *
+     * @throws IOException if the server socket or the registry file cannot be set up
+     */
+    public void run()
+        throws IOException
+    {
+        try ( ServerSocket serverSocket = new ServerSocket( 0, BACKLOG, InetAddress.getLoopbackAddress() ) )
+        {
+            serverSocket.setSoTimeout( (int) Math.min( idleTimeout, Integer.MAX_VALUE ) );
+
+            DaemonProtocol.writeRegistry( registryFile, serverSocket.getLocalPort(), token );
+
+            System.out.println( "Maven daemon listening on port " + serverSocket.getLocalPort() );
+
+            ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool( threads ) : null;
+            try
+            {
+                while ( true )
+                {
+                    final Socket socket;
+                    try
+                    {
+                        socket = serverSocket.accept();
+                    }
+                    catch ( SocketTimeoutException e )
+                    {
+                        if ( activeBuilds.get() > 0 )
+                        {
+                            continue;
+                        }
+                        System.out.println( "Maven daemon idle for " + idleTimeout + " ms, shutting down" );
+                        break;
+                    }
+
+                    activeBuilds.incrementAndGet();
+                    if ( executor != null )
+                    {
+                        executor.execute( new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                serveAndClose( socket );
+                            }
+                        } );
+                    }
+                    else
+                    {
+                        serveAndClose( socket );
+                    }
+                }
+            }
+            finally
+            {
+                if ( executor != null )
+                {
+                    executor.shutdown();
+                    try
+                    {
+                        executor.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                registryFile.delete();
+                ContainerPool.getInstance().clear();
+            }
+        }
+    }
+
+    private void serveAndClose( Socket socket )
+    {
+        try ( Socket s = socket )
+        {
+            serve( s );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // only this request fails, the daemon keeps serving
+            System.err.println( "Maven daemon request failed: " + e );
+        }
+        finally
+        {
+            activeBuilds.decrementAndGet();
+        }
+    }
+
+    private void serve( Socket socket )
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+
+        // a client that stalls can't hold the daemon, the build itself is not bounded
+        socket.setSoTimeout( DaemonProtocol.HANDSHAKE_TIMEOUT );
+
+        DaemonProtocol.checkMagic( in );
+
+        byte[] clientNonce = DaemonProtocol.readBytes( in, DaemonProtocol.NONCE_BYTES );
+        byte[] serverNonce = DaemonProtocol.newNonce( random );
+        out.write( serverNonce );
+        out.write( DaemonProtocol.proof( token, DaemonProtocol.SERVER_PROOF, clientNonce ) );
+        out.flush();
+
+        byte[] clientProof = DaemonProtocol.readBytes( in, DaemonProtocol.PROOF_BYTES );
+        if ( !MessageDigest.isEqual( DaemonProtocol.proof( token, DaemonProtocol.CLIENT_PROOF, serverNonce ),
+                                     clientProof ) )
+        {
+            throw new IOException( "Rejected request with invalid token" );
+        }
+
+        String workingDirectory = DaemonProtocol.readRequiredString( in, "working directory" );
+        String multiModuleProjectDirectory = DaemonProtocol.readString( in );
+
+        String[] args = new String[DaemonProtocol.readCount( in )];
+        for ( int i = 0; i < args.length; i++ )
+        {
+            args[i] = DaemonProtocol.readRequiredString( in, "argument" );
+        }
+
+        int envSize = DaemonProtocol.readCount( in );
+        // only the variables differing from the environment of the daemon are kept
+        EnvironmentSnapshot.Builder environment = EnvironmentStore.getInstance().newSnapshot();
+        for ( int i = 0; i < envSize; i++ )
+        {
+            environment.put( DaemonProtocol.readRequiredString( in, "environment variable name" ),
+                             DaemonProtocol.readRequiredString( in, "environment variable value" ) );
+        }
+        socket.setSoTimeout( 0 );
+
+        PrintStream stdout =
+            new PrintStream( new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.FRAME_STDOUT ), true );
+        PrintStream stderr =
+            new PrintStream( new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.FRAME_STDERR ), true );
+
+        int exitCode = execute( args, workingDirectory,
+                                multiModuleProjectDirectory != null ? new File( multiModuleProjectDirectory ) : null,
+                                environment.build(), stdout, stderr );
+
+        stdout.flush();
+        stderr.flush();
+        synchronized ( out )
+        {
+            out.writeByte( DaemonProtocol.FRAME_EXIT );
+            out.writeInt( exitCode );
+            out.flush();
+        }
+    }
+
+    private int execute( String[] args, String workingDirectory, File multiModuleProjectDirectory,
+                         Map<String, String> environment, PrintStream stdout, PrintStream stderr )
+    {
+        if ( threads > 1 )
+        {
+            // each build sees its own system properties
+            return new MavenCli( classWorld ).doMain( args, workingDirectory, multiModuleProjectDirectory,
+                                                      environment, stdout, stderr );
+        }
+
+        // -D options end up as system properties, don't let them leak into the next build
+        Properties systemProperties = SystemProperties.getSystemProperties();
+        try
+        {
+            return new MavenCli( classWorld ).doMain( args, workingDirectory, multiModuleProjectDirectory,
+                                                      environment, stdout, stderr );
+        }
+        finally
+        {
+            System.setProperties( systemProperties );
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.apache.maven.cli.daemon;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.cli.MavenCli;
+import org.codehaus.plexus.classworlds.ClassWorld;
+
+/**
+ * Thin client sending the arguments, working directory and environment of the current process to a running
+ * {@link MavenDaemon}, and streaming the build output back. When no daemon is running, the build is run in-process.
+ *
+ * @since 3.6.4
+ */
+public class MavenDaemonClient
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    public static void main( String[] args )
+    {
+        System.exit( main( args, null ) );
+    }
+
+    public static int main( String[] args, ClassWorld classWorld )
+    {
+        File registryFile = DaemonProtocol.getRegistryFile();
+
+        if ( registryFile.isFile() )
+        {
+            try
+            {
+                return execute( registryFile, args );
+            }
+            catch ( IOException e )
+            {
+                System.err.println( "Unable to use Maven daemon (" + e.getMessage() + "), building in-process" );
+            }
+        }
+
+        return MavenCli.main( args, classWorld );
+    }
+
+    static int execute( File registryFile, String[] args )
+        throws IOException
+    {
+        Properties registry = DaemonProtocol.readRegistry( registryFile );
+
+        int port;
+        try
+        {
+            port = Integer.parseInt( registry.getProperty( DaemonProtocol.PORT ) );
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new IOException( "Invalid registry file " + registryFile );
+        }
+
+        String token = registry.getProperty( DaemonProtocol.TOKEN );
+        if ( token == null )
+        {
+            throw new IOException( "Invalid registry file " + registryFile );
+        }
+
+        try ( Socket socket = new Socket( InetAddress.getLoopbackAddress(), port ) )
+        {
+            socket.setSoTimeout( DaemonProtocol.HANDSHAKE_TIMEOUT );
+            DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+            DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+
+            byte[] clientNonce = DaemonProtocol.newNonce( new SecureRandom() );
+            out.writeInt( DaemonProtocol.MAGIC );
+            out.write( clientNonce );
+            out.flush();
+
+            // whatever listens on the port must prove it knows the token before it gets the environment
+            byte[] serverNonce = DaemonProtocol.readBytes( in, DaemonProtocol.NONCE_BYTES );
+            byte[] serverProof = DaemonProtocol.readBytes( in, DaemonProtocol.PROOF_BYTES );
+            if ( !MessageDigest.isEqual( DaemonProtocol.proof( token, DaemonProtocol.SERVER_PROOF, clientNonce ),
+                                         serverProof ) )
+            {
+                throw new IOException( "Process listening on port " + port + " is not the Maven daemon" );
+            }
+            out.write( DaemonProtocol.proof( token, DaemonProtocol.CLIENT_PROOF, serverNonce ) );
+
+            DaemonProtocol.writeString( out, System.getProperty( "user.dir" ) );
+            DaemonProtocol.writeString( out, System.getProperty( MavenCli.MULTIMODULE_PROJECT_DIRECTORY ) );
+
+            out.writeInt( args.length );
+            for ( String arg : args )
+            {
+                DaemonProtocol.writeString( out, arg );
+            }
+
+            Map<String, String> environment = System.getenv();
+            out.writeInt( environment.size() );
+            for ( Map.Entry<String, String> entry : environment.entrySet() )
+            {
+                DaemonProtocol.writeString( out, entry.getKey() );
+                DaemonProtocol.writeString( out, entry.getValue() );
+            }
+            out.flush();
+
+            // from here on the build has been submitted, so it must not be run again in-process
+            try
+            {
+                // builds may not print anything for long
+                socket.setSoTimeout( 0 );
+                return readResponse( in );
+            }
+            catch ( IOException e )
+            {
+                System.err.println( "Lost connection to Maven daemon: " + e.getMessage() );
+                return 1;
+            }
+        }
+    }
+
+    private static int readResponse( DataInputStream in )
+        throws IOException
+    {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try
+        {
+            while ( true )
+            {
+                byte type = in.readByte();
+                if ( type == DaemonProtocol.FRAME_EXIT )
+                {
+                    System.out.flush();
+                    System.err.flush();
+                    return in.readInt();
+                }
+
+                if ( type != DaemonProtocol.FRAME_STDOUT && type != DaemonProtocol.FRAME_STDERR )
+                {
+                    throw new IOException( "Unexpected frame type " + type );
+                }
+                PrintStream target = type == DaemonProtocol.FRAME_STDERR ? System.err : System.out;
+                int remaining = DaemonProtocol.readFrameLength( in );
+                while ( remaining > 0 )
+                {
+                    int n = Math.min( remaining, buffer.length );
+                    in.readFully( buffer, 0, n );
+                    target.write( buffer, 0, n );
+                    remaining -= n;
+                }
+            }
+        }
+        catch ( EOFException e )
+        {
+            System.err.println( "Maven daemon closed the connection before the build completed" );
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.classworlds.ClassWorldListener;
+
+/**
+ * Java Flight Recorder events of the <code>MavenCli</code> bootstrap: phases, realm creation and disposal, component
+ * lookups and logging activation. This is the Java 7 variant, which emits nothing; the Java 11 variant of this class
+ * is packaged under <code>META-INF/versions/11</code> and replaces it on runtimes that support multi-release jars.
+ * <p>
+ * Spans are returned for use with try-with-resources, and are a shared no-op when no recording is enabled.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class BootstrapEvents
+{
+    private BootstrapEvents()
+    {
+    }
+
+    /**
+     * @param name the name of the phase
+     * @return the open phase event, never <code>null</code>
+     */
+    public static StartupProfiler.Span phase( String name )
+    {
+        return StartupProfiler.NO_SPAN;
+    }
+
+    /**
+     * @param role the role of the component
+     * @param hint the hint of the component, may be <code>null</code>
+     * @return the open lookup event, never <code>null</code>
+     */
+    public static StartupProfiler.Span lookup( String role, String hint )
+    {
+        return StartupProfiler.NO_SPAN;
+    }
+
+    /**
+     * @param configuration the class name of the SLF4J configuration being activated
+     * @return the open activation event, never <code>null</code>
+     */
+    public static StartupProfiler.Span loggingActivation( String configuration )
+    {
+        return StartupProfiler.NO_SPAN;
+    }
+
+    /**
+     * @return a listener emitting realm creation and disposal events, or <code>null</code> if events are not
+     *         supported by this runtime
+     */
+    public static ClassWorldListener realmListener()
+    {
+        return null;
+    }
+}
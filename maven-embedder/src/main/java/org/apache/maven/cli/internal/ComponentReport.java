@@ -0,0 +1,113 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.google.inject.spi.ProvisionListener;
+
+/**
+ * Guice provision listener recording which components a request actually realizes, to check that quick invocations
+ * do not build the component graph. Components are created on demand by Sisu, so the report of a request lists the
+ * singletons first needed by that request, and every non-singleton it asked for. Recording is off unless the request
+ * runs in debug mode.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class ComponentReport
+    implements ProvisionListener
+{
+    private final List<String> realized = new ArrayList<>();
+
+    private volatile boolean enabled;
+
+    /**
+     * Starts recording for a new request, discarding what previous requests realized.
+     *
+     * @param enabled whether to record
+     */
+    public void start( boolean enabled )
+    {
+        synchronized ( realized )
+        {
+            realized.clear();
+        }
+        this.enabled = enabled;
+    }
+
+    @Override
+    public <T> void onProvision( ProvisionInvocation<T> provision )
+    {
+        if ( !enabled )
+        {
+            return;
+        }
+
+        long start = System.nanoTime();
+        T component = provision.provision();
+        long micros = TimeUnit.NANOSECONDS.toMicros( System.nanoTime() - start );
+
+        if ( component != null )
+        {
+            String name = component.getClass().getName();
+            if ( !name.startsWith( "com.google.inject." ) && !name.startsWith( "org.eclipse.sisu." ) )
+            {
+                synchronized ( realized )
+                {
+                    realized.add( name + " (" + micros + " us)" );
+                }
+            }
+        }
+    }
+
+    /**
+     * Logs the components realized since {@link #start(boolean)} at debug level, and stops recording.
+     *
+     * @param logger the request logger
+     */
+    public void report( Logger logger )
+    {
+        if ( !enabled )
+        {
+            return;
+        }
+        enabled = false;
+
+        List<String> components;
+        synchronized ( realized )
+        {
+            components = new ArrayList<>( realized );
+            realized.clear();
+        }
+
+        logger.debug( "Components realized by this invocation: " + components.size() );
+        for ( String component : components )
+        {
+            logger.debug( "  " + component );
+        }
+    }
+}
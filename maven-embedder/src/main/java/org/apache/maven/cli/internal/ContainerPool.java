@@ -0,0 +1,301 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.cli.logging.Slf4jLoggerManager;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.SubstituteLogger;
+
+/**
+ * Opt-in pool of idle Plexus containers, reused by embedded and daemon invocations of <code>MavenCli.doMain</code>
+ * that run against the same <code>ClassWorld</code>, so that the Guice injector and the singletons it holds are only
+ * built once. Containers are keyed by the identity of the core realm and the set of realms loaded in the class world
+ * when the container was created, and the least recently used ones are disposed when the pool is full.
+ * <p>
+ * The pool is disabled unless <code>-Dmaven.container.pool.size</code> is set to a positive value.
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class ContainerPool
+{
+    public static final String SIZE_PROPERTY = "maven.container.pool.size";
+
+    private static final ContainerPool INSTANCE = new ContainerPool();
+
+    private final Map<Key, PooledContainer> idle = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private ContainerPool()
+    {
+    }
+
+    public static ContainerPool getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the maximum number of idle containers kept, <code>0</code> when pooling is disabled
+     */
+    public int getMaxSize()
+    {
+        return Math.max( 0, Integer.getInteger( SIZE_PROPERTY, 0 ) );
+    }
+
+    public boolean isEnabled()
+    {
+        return getMaxSize() > 0;
+    }
+
+    public static Key key( ClassWorld classWorld, ClassRealm coreRealm )
+    {
+        Set<String> realmIds = new HashSet<>();
+        for ( ClassRealm realm : classWorld.getRealms() )
+        {
+            realmIds.add( realm.getId() );
+        }
+        return new Key( coreRealm, realmIds );
+    }
+
+    /**
+     * Takes an idle container out of the pool.
+     *
+     * @param key the key of the wanted container
+     * @return the container, or <code>null</code> if none is idle for this key
+     */
+    public synchronized PooledContainer acquire( Key key )
+    {
+        return idle.remove( key );
+    }
+
+    /**
+     * Gives a container back to the pool, resetting its per-request state. The container is disposed instead if
+     * pooling has been disabled in the meantime or if another container is already idle for the same key.
+     *
+     * @param pooledContainer the container to give back
+     */
+    public void release( PooledContainer pooledContainer )
+    {
+        pooledContainer.reset();
+
+        List<PooledContainer> evicted = new ArrayList<>();
+        synchronized ( this )
+        {
+            int maxSize = getMaxSize();
+            if ( maxSize > 0 && !idle.containsKey( pooledContainer.key ) )
+            {
+                idle.put( pooledContainer.key, pooledContainer );
+            }
+            else
+            {
+                evicted.add( pooledContainer );
+            }
+
+            for ( Iterator<PooledContainer> it = idle.values().iterator(); idle.size() > maxSize && it.hasNext(); )
+            {
+                evicted.add( it.next() );
+                it.remove();
+            }
+        }
+
+        // disposal can take a while, don't hold the lock meanwhile
+        for ( PooledContainer container : evicted )
+        {
+            container.getContainer().dispose();
+        }
+    }
+
+    /**
+     * Disposes all idle containers.
+     */
+    public void clear()
+    {
+        List<PooledContainer> evicted;
+        synchronized ( this )
+        {
+            evicted = new ArrayList<>( idle.values() );
+            idle.clear();
+        }
+
+        for ( PooledContainer container : evicted )
+        {
+            container.getContainer().dispose();
+        }
+    }
+
+    /**
+     * Pool key: core realm identity and ids of the realms loaded when the container was created.
+     */
+    public static final class Key
+    {
+        private final ClassRealm coreRealm;
+
+        private final Set<String> realmIds;
+
+        Key( ClassRealm coreRealm, Set<String> realmIds )
+        {
+            this.coreRealm = coreRealm;
+            this.realmIds = realmIds;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            Key that = (Key) obj;
+            return coreRealm == that.coreRealm && realmIds.equals( that.realmIds );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode( coreRealm ) * 31 + realmIds.hashCode();
+        }
+    }
+
+    /**
+     * A container that can go back to the pool. Its <code>ILoggerFactory</code> binding points to a delegate that is
+     * switched to the logger factory of each request, since SLF4J is reinitialized when logging is activated, and its
+     * <code>LoggerManager</code> creates loggers on top of it, so that the loggers injected into singletons by an
+     * earlier request log through the current one.
+     */
+    public static final class PooledContainer
+    {
+        private final Key key;
+
+        private final DefaultPlexusContainer container;
+
+        private final SwitchableLoggerFactory loggerFactory;
+
+        private final ComponentReport componentReport;
+
+        public PooledContainer( Key key, DefaultPlexusContainer container, SwitchableLoggerFactory loggerFactory,
+                                ComponentReport componentReport )
+        {
+            this.key = key;
+            this.container = container;
+            this.loggerFactory = loggerFactory;
+            this.componentReport = componentReport;
+            // levels are not cached, they change with the logger factory of each request
+            container.setLoggerManager( new Slf4jLoggerManager( loggerFactory, false ) );
+        }
+
+        public DefaultPlexusContainer getContainer()
+        {
+            return container;
+        }
+
+        public ComponentReport getComponentReport()
+        {
+            return componentReport;
+        }
+
+        /**
+         * Binds the container to the logging of a new request.
+         */
+        public void activate( ILoggerFactory slf4jLoggerFactory )
+        {
+            loggerFactory.setDelegate( slf4jLoggerFactory );
+        }
+
+        void reset()
+        {
+            loggerFactory.setDelegate( null );
+            componentReport.start( false );
+            container.setLookupRealm( null );
+        }
+    }
+
+    /**
+     * <code>ILoggerFactory</code> forwarding to the logger factory of the current request. The loggers it returns
+     * are switched to the corresponding logger of each new delegate.
+     */
+    public static final class SwitchableLoggerFactory
+        implements ILoggerFactory
+    {
+        private final ConcurrentMap<String, SubstituteLogger> loggers = new ConcurrentHashMap<>();
+
+        private ILoggerFactory delegate;
+
+        public SwitchableLoggerFactory( ILoggerFactory delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        public synchronized void setDelegate( ILoggerFactory delegate )
+        {
+            this.delegate = delegate;
+            for ( SubstituteLogger logger : loggers.values() )
+            {
+                logger.setDelegate( getDelegateLogger( logger.getName() ) );
+            }
+        }
+
+        @Override
+        public Logger getLogger( String name )
+        {
+            Logger logger = loggers.get( name );
+            if ( logger != null )
+            {
+                return logger;
+            }
+
+            synchronized ( this )
+            {
+                SubstituteLogger created = loggers.get( name );
+                if ( created == null )
+                {
+                    created = new SubstituteLogger( name, null, true );
+                    created.setDelegate( getDelegateLogger( name ) );
+                    loggers.put( name, created );
+                }
+                return created;
+            }
+        }
+
+        private Logger getDelegateLogger( String name )
+        {
+            return ( delegate != null ? delegate : LoggerFactory.getILoggerFactory() ).getLogger( name );
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.properties.internal.LayeredProperties;
+import org.codehaus.plexus.classworlds.ClassWorldListener;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.slf4j.event.Level;
+
+/**
+ * The JVM-wide state of one build in concurrent mode: its standard streams, its system properties, its logging level
+ * and the class realms it creates. The scope is bound to the thread entering it and inherited by the threads that
+ * thread starts, so {@link System#out}, {@link System#err} and the system properties, once {@link #install()
+ * installed}, route to the scope of the calling thread. Threads started before the scope was entered, like those of
+ * a shared pool, are not part of it.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class RequestScope
+    implements AutoCloseable
+{
+    private static final InheritableThreadLocal<RequestScope> CURRENT = new InheritableThreadLocal<>();
+
+    private static RoutingPrintStream stdoutRouter;
+
+    private static RoutingPrintStream stderrRouter;
+
+    private static RoutingProperties propertiesRouter;
+
+    private final RequestScope previous;
+
+    private final Thread thread;
+
+    private final Properties systemProperties;
+
+    private final Set<String> createdRealms = Collections.synchronizedSet( new LinkedHashSet<String>() );
+
+    private volatile PrintStream stdout;
+
+    private volatile PrintStream stderr;
+
+    private volatile Level level = Level.INFO;
+
+    private volatile boolean closed;
+
+    private RequestScope( RequestScope previous, PrintStream stdout, PrintStream stderr )
+    {
+        this.previous = previous;
+        this.thread = Thread.currentThread();
+        this.stdout = stdout;
+        this.stderr = stderr;
+
+        Properties parent = previous != null ? previous.systemProperties : propertiesRouter.getFallback();
+        this.systemProperties = new LayeredProperties( LayeredProperties.source( "system", parent ) );
+    }
+
+    /**
+     * Replaces the standard streams and the system properties of the JVM by ones routing to the scope of the calling
+     * thread. Does nothing if already done.
+     */
+    public static synchronized void install()
+    {
+        if ( propertiesRouter == null )
+        {
+            stdoutRouter = new RoutingPrintStream( System.out, false );
+            stderrRouter = new RoutingPrintStream( System.err, true );
+            propertiesRouter = new RoutingProperties( System.getProperties() );
+
+            System.setOut( stdoutRouter );
+            System.setErr( stderrRouter );
+            System.setProperties( propertiesRouter );
+        }
+    }
+
+    /**
+     * @return {@code true} if the standard streams and the system properties route to the scopes
+     */
+    public static synchronized boolean isInstalled()
+    {
+        return propertiesRouter != null;
+    }
+
+    /**
+     * Enters a new scope on the calling thread, nested in the current one if any. Its system properties start as a
+     * view of the enclosing ones, changes to them are only visible within the scope.
+     *
+     * @param stdout the standard output of the scope, or {@code null} to use the enclosing one
+     * @param stderr the standard error of the scope, or {@code null} to use the enclosing one
+     * @return the scope, to be closed by the same thread
+     */
+    public static RequestScope enter( PrintStream stdout, PrintStream stderr )
+    {
+        install();
+
+        RequestScope previous = current();
+        RequestScope scope = new RequestScope( previous, unwrap( stdout ), unwrap( stderr ) );
+        CURRENT.set( scope );
+        return scope;
+    }
+
+    private static PrintStream unwrap( PrintStream stream )
+    {
+        // a caller passing System.out would otherwise route to itself
+        return stream instanceof RoutingPrintStream ? ( (RoutingPrintStream) stream ).target() : stream;
+    }
+
+    /**
+     * @return the scope of the calling thread, or {@code null} if it is not running a build in concurrent mode
+     */
+    public static RequestScope current()
+    {
+        RequestScope scope = CURRENT.get();
+        while ( scope != null && scope.closed )
+        {
+            scope = scope.previous;
+        }
+        return scope;
+    }
+
+    /**
+     * Tells whether a logging event of the given level is logged for the build of the calling thread. Outside of
+     * builds, events from {@link Level#INFO} up are logged.
+     *
+     * @param level the level of the event
+     * @return {@code true} if the event should be logged
+     */
+    public static boolean isEnabled( Level level )
+    {
+        RequestScope scope = current();
+        return level.toInt() >= ( scope != null ? scope.level : Level.INFO ).toInt();
+    }
+
+    PrintStream getOut()
+    {
+        PrintStream out = stdout;
+        return out != null || previous == null ? out : previous.getOut();
+    }
+
+    PrintStream getErr()
+    {
+        PrintStream err = stderr;
+        return err != null || previous == null ? err : previous.getErr();
+    }
+
+    public void setOut( PrintStream stdout )
+    {
+        this.stdout = unwrap( stdout );
+    }
+
+    public void setErr( PrintStream stderr )
+    {
+        this.stderr = unwrap( stderr );
+    }
+
+    public Properties getSystemProperties()
+    {
+        return systemProperties;
+    }
+
+    /**
+     * @param level the lowest level logged for this build
+     */
+    public void setLevel( Level level )
+    {
+        this.level = level;
+    }
+
+    /**
+     * Returns a listener recording the realms created by the threads of this scope, to be added to the class world
+     * for the duration of the build.
+     *
+     * @return the listener, never {@code null}
+     */
+    public ClassWorldListener getRealmListener()
+    {
+        return new ClassWorldListener()
+        {
+            @Override
+            public void realmCreated( ClassRealm realm )
+            {
+                if ( encloses( current() ) )
+                {
+                    createdRealms.add( realm.getId() );
+                }
+            }
+
+            @Override
+            public void realmDisposed( ClassRealm realm )
+            {
+                createdRealms.remove( realm.getId() );
+            }
+        };
+    }
+
+    private boolean encloses( RequestScope scope )
+    {
+        for ( RequestScope s = scope; s != null; s = s.previous )
+        {
+            if ( s == this )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the ids of the realms created by the threads of this scope and not disposed yet, in creation order
+     */
+    public Set<String> getCreatedRealms()
+    {
+        synchronized ( createdRealms )
+        {
+            return new LinkedHashSet<>( createdRealms );
+        }
+    }
+
+    /**
+     * Leaves this scope, restoring the enclosing one on the calling thread. Threads that inherited this scope fall
+     * back to the enclosing one as well.
+     */
+    @Override
+    public void close()
+    {
+        if ( Thread.currentThread() != thread )
+        {
+            throw new IllegalStateException( "Request scope must be closed by the thread that entered it" );
+        }
+        closed = true;
+        if ( previous != null )
+        {
+            CURRENT.set( previous );
+        }
+        else
+        {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.cli.logging.ForwardingLogger;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * Wraps the loggers of the SLF4J binding so that each build running in concurrent mode gets the logging level of its
+ * own command line, see {@link RequestScope#isEnabled(Level)}. The binding itself has to log at the most verbose
+ * level any build asks for.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class RequestScopedLoggerFactory
+    implements ILoggerFactory
+{
+    private final ILoggerFactory delegate;
+
+    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<>();
+
+    public RequestScopedLoggerFactory( ILoggerFactory delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    public ILoggerFactory getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public Logger getLogger( String name )
+    {
+        Logger logger = loggers.get( name );
+        if ( logger == null )
+        {
+            Logger created = new RequestScopedLogger( delegate.getLogger( name ) );
+            logger = loggers.putIfAbsent( name, created );
+            if ( logger == null )
+            {
+                logger = created;
+            }
+        }
+        return logger;
+    }
+
+    private static final class RequestScopedLogger
+        extends ForwardingLogger
+    {
+        RequestScopedLogger( Logger delegate )
+        {
+            super( delegate );
+        }
+
+        @Override
+        protected boolean isEnabled( Level level, Marker marker )
+        {
+            return RequestScope.isEnabled( level ) && super.isEnabled( level, marker );
+        }
+    }
+}
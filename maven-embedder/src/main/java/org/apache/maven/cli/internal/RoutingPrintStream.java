@@ -0,0 +1,255 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Installed as {@link System#out} or {@link System#err} in concurrent mode, forwards everything to the stream of the
+ * {@link RequestScope} of the calling thread, or to the original stream outside of requests.
+ */
+final class RoutingPrintStream
+    extends PrintStream
+{
+    private final PrintStream fallback;
+
+    private final boolean stderr;
+
+    RoutingPrintStream( PrintStream fallback, boolean stderr )
+    {
+        super( fallback, false );
+        this.fallback = fallback;
+        this.stderr = stderr;
+    }
+
+    PrintStream getFallback()
+    {
+        return fallback;
+    }
+
+    PrintStream target()
+    {
+        RequestScope scope = RequestScope.current();
+        PrintStream target = scope == null ? null : stderr ? scope.getErr() : scope.getOut();
+        return target != null ? target : fallback;
+    }
+
+    @Override
+    public void flush()
+    {
+        target().flush();
+    }
+
+    @Override
+    public void close()
+    {
+        target().close();
+    }
+
+    @Override
+    public boolean checkError()
+    {
+        return target().checkError();
+    }
+
+    @Override
+    public void write( int b )
+    {
+        target().write( b );
+    }
+
+    @Override
+    public void write( byte[] buf, int off, int len )
+    {
+        target().write( buf, off, len );
+    }
+
+    @Override
+    public void write( byte[] b )
+        throws IOException
+    {
+        target().write( b );
+    }
+
+    @Override
+    public void print( boolean b )
+    {
+        target().print( b );
+    }
+
+    @Override
+    public void print( char c )
+    {
+        target().print( c );
+    }
+
+    @Override
+    public void print( int i )
+    {
+        target().print( i );
+    }
+
+    @Override
+    public void print( long l )
+    {
+        target().print( l );
+    }
+
+    @Override
+    public void print( float f )
+    {
+        target().print( f );
+    }
+
+    @Override
+    public void print( double d )
+    {
+        target().print( d );
+    }
+
+    @Override
+    public void print( char[] s )
+    {
+        target().print( s );
+    }
+
+    @Override
+    public void print( String s )
+    {
+        target().print( s );
+    }
+
+    @Override
+    public void print( Object obj )
+    {
+        target().print( obj );
+    }
+
+    @Override
+    public void println()
+    {
+        target().println();
+    }
+
+    @Override
+    public void println( boolean b )
+    {
+        target().println( b );
+    }
+
+    @Override
+    public void println( char c )
+    {
+        target().println( c );
+    }
+
+    @Override
+    public void println( int i )
+    {
+        target().println( i );
+    }
+
+    @Override
+    public void println( long l )
+    {
+        target().println( l );
+    }
+
+    @Override
+    public void println( float f )
+    {
+        target().println( f );
+    }
+
+    @Override
+    public void println( double d )
+    {
+        target().println( d );
+    }
+
+    @Override
+    public void println( char[] s )
+    {
+        target().println( s );
+    }
+
+    @Override
+    public void println( String s )
+    {
+        target().println( s );
+    }
+
+    @Override
+    public void println( Object obj )
+    {
+        target().println( obj );
+    }
+
+    @Override
+    public PrintStream printf( String format, Object... args )
+    {
+        target().printf( format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream printf( Locale l, String format, Object... args )
+    {
+        target().printf( l, format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream format( String format, Object... args )
+    {
+        target().format( format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream format( Locale l, String format, Object... args )
+    {
+        target().format( l, format, args );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( CharSequence csq )
+    {
+        target().append( csq );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( CharSequence csq, int start, int end )
+    {
+        target().append( csq, start, end );
+        return this;
+    }
+
+    @Override
+    public PrintStream append( char c )
+    {
+        target().append( c );
+        return this;
+    }
+}
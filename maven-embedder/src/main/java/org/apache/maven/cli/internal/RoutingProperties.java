@@ -0,0 +1,332 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Installed as the system properties in concurrent mode, forwards everything to the system properties of the
+ * {@link RequestScope} of the calling thread, or to the original system properties outside of requests. The
+ * functional {@link Map} methods of Java 8, like {@code compute} or {@code forEach}, are not forwarded.
+ */
+final class RoutingProperties
+    extends Properties
+{
+    private static final long serialVersionUID = 1L;
+
+    private final transient Properties fallback;
+
+    RoutingProperties( Properties fallback )
+    {
+        this.fallback = fallback;
+    }
+
+    Properties getFallback()
+    {
+        return fallback;
+    }
+
+    private Properties target()
+    {
+        RequestScope scope = RequestScope.current();
+        return scope != null ? scope.getSystemProperties() : fallback;
+    }
+
+    @Override
+    public String getProperty( String key )
+    {
+        return target().getProperty( key );
+    }
+
+    @Override
+    public String getProperty( String key, String defaultValue )
+    {
+        return target().getProperty( key, defaultValue );
+    }
+
+    @Override
+    public Object setProperty( String key, String value )
+    {
+        return target().setProperty( key, value );
+    }
+
+    @Override
+    public void load( Reader reader )
+        throws IOException
+    {
+        target().load( reader );
+    }
+
+    @Override
+    public void load( InputStream inStream )
+        throws IOException
+    {
+        target().load( inStream );
+    }
+
+    @Override
+    public void loadFromXML( InputStream in )
+        throws IOException
+    {
+        target().loadFromXML( in );
+    }
+
+    @Override
+    public void store( Writer writer, String comments )
+        throws IOException
+    {
+        target().store( writer, comments );
+    }
+
+    @Override
+    public void store( OutputStream out, String comments )
+        throws IOException
+    {
+        target().store( out, comments );
+    }
+
+    @Override
+    public void storeToXML( OutputStream os, String comment )
+        throws IOException
+    {
+        target().storeToXML( os, comment );
+    }
+
+    @Override
+    public void storeToXML( OutputStream os, String comment, String encoding )
+        throws IOException
+    {
+        target().storeToXML( os, comment, encoding );
+    }
+
+    @Override
+    public Enumeration<?> propertyNames()
+    {
+        return target().propertyNames();
+    }
+
+    @Override
+    public Set<String> stringPropertyNames()
+    {
+        return target().stringPropertyNames();
+    }
+
+    @Override
+    public void list( PrintStream out )
+    {
+        target().list( out );
+    }
+
+    @Override
+    public void list( PrintWriter out )
+    {
+        target().list( out );
+    }
+
+    @Override
+    public int size()
+    {
+        return target().size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return target().isEmpty();
+    }
+
+    @Override
+    public Enumeration<Object> keys()
+    {
+        return target().keys();
+    }
+
+    @Override
+    public Enumeration<Object> elements()
+    {
+        return target().elements();
+    }
+
+    @Override
+    public boolean contains( Object value )
+    {
+        return target().contains( value );
+    }
+
+    @Override
+    public boolean containsValue( Object value )
+    {
+        return target().containsValue( value );
+    }
+
+    @Override
+    public boolean containsKey( Object key )
+    {
+        return target().containsKey( key );
+    }
+
+    @Override
+    public Object get( Object key )
+    {
+        return target().get( key );
+    }
+
+    @Override
+    public Object put( Object key, Object value )
+    {
+        return target().put( key, value );
+    }
+
+    @Override
+    public Object remove( Object key )
+    {
+        return target().remove( key );
+    }
+
+    @Override
+    public void putAll( Map<?, ?> t )
+    {
+        target().putAll( t );
+    }
+
+    @Override
+    public void clear()
+    {
+        target().clear();
+    }
+
+    @Override
+    public Object clone()
+    {
+        return target().clone();
+    }
+
+    @Override
+    public String toString()
+    {
+        return target().toString();
+    }
+
+    @Override
+    public Set<Object> keySet()
+    {
+        return target().keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet()
+    {
+        return target().entrySet();
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        return target().values();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        return target().equals( o );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return target().hashCode();
+    }
+
+    // not an override on Java 7
+    public Object getOrDefault( Object key, Object defaultValue )
+    {
+        Object value = target().get( key );
+        return value != null ? value : defaultValue;
+    }
+
+    // not an override on Java 7
+    public Object putIfAbsent( Object key, Object value )
+    {
+        Properties target = target();
+        synchronized ( target )
+        {
+            Object current = target.get( key );
+            return current != null ? current : target.put( key, value );
+        }
+    }
+
+    // not an override on Java 7
+    public boolean remove( Object key, Object value )
+    {
+        Properties target = target();
+        synchronized ( target )
+        {
+            Object current = target.get( key );
+            if ( current != null && current.equals( value ) )
+            {
+                target.remove( key );
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // not an override on Java 7
+    public Object replace( Object key, Object value )
+    {
+        Properties target = target();
+        synchronized ( target )
+        {
+            return target.containsKey( key ) ? target.put( key, value ) : null;
+        }
+    }
+
+    // not an override on Java 7
+    public boolean replace( Object key, Object oldValue, Object newValue )
+    {
+        Properties target = target();
+        synchronized ( target )
+        {
+            Object current = target.get( key );
+            if ( current != null && current.equals( oldValue ) )
+            {
+                target.put( key, newValue );
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private Object writeReplace()
+    {
+        return target().clone();
+    }
+}
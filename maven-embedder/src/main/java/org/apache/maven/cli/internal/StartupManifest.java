@@ -0,0 +1,518 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.eclipse.sisu.space.ClassSpace;
+import org.eclipse.sisu.space.QualifiedTypeBinder;
+import org.eclipse.sisu.space.URLClassSpace;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+
+/**
+ * Startup information of a Maven distribution, generated by the <code>apache-maven</code> build into
+ * <code>lib/maven-startup.manifest</code>: the build properties, the Slf4jConfiguration of each supported SLF4J
+ * binding and the content of the Sisu index of each jar. Reading this single file replaces opening
+ * <code>build.properties</code>, every <code>META-INF/maven/slf4j-configuration.properties</code> and every
+ * <code>META-INF/sisu/javax.inject.Named</code> of the class path on each start.
+ * <p>
+ * The manifest records the name and size of the jars of <code>lib</code> and <code>boot</code> it was generated
+ * from, and is ignored as soon as they differ from the installed ones, as well as when it is missing or when
+ * <code>-Dmaven.startupManifest=false</code> is given: callers then fall back to reading the class path resources.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class StartupManifest
+{
+    public static final String ENABLED_PROPERTY = "maven.startupManifest";
+
+    public static final String FILE_NAME = "maven-startup.manifest";
+
+    static final String BUILD_PROPERTIES = "org/apache/maven/messages/build.properties";
+
+    static final String SLF4J_CONFIGURATION = "META-INF/maven/slf4j-configuration.properties";
+
+    static final String SISU_INDEX = "META-INF/sisu/javax.inject.Named";
+
+    private static final int MAGIC = 0x4D564E53; // MVNS
+
+    private static final int FORMAT = 1;
+
+    private static final Object LOCK = new Object();
+
+    private static volatile boolean loaded;
+
+    private static StartupManifest instance;
+
+    private final Map<String, Long> jars;
+
+    private final Properties buildProperties;
+
+    private final Map<String, String> slf4jConfigurations;
+
+    private final Map<String, List<String>> components;
+
+    private File libDirectory;
+
+    StartupManifest( Map<String, Long> jars, Properties buildProperties, Map<String, String> slf4jConfigurations,
+                     Map<String, List<String>> components )
+    {
+        this.jars = jars;
+        this.buildProperties = buildProperties;
+        this.slf4jConfigurations = slf4jConfigurations;
+        this.components = components;
+    }
+
+    public static boolean isEnabled()
+    {
+        return !"false".equalsIgnoreCase( System.getProperty( ENABLED_PROPERTY ) );
+    }
+
+    /**
+     * Returns the manifest of the distribution found in <code>maven.home</code>, read once per JVM.
+     *
+     * @return the manifest, or <code>null</code> if it is disabled, missing, unreadable or stale
+     */
+    public static StartupManifest getInstance()
+    {
+        if ( !loaded )
+        {
+            synchronized ( LOCK )
+            {
+                if ( !loaded )
+                {
+                    instance = load( System.getProperty( "maven.home" ) );
+                    loaded = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static StartupManifest load( String mavenHome )
+    {
+        if ( mavenHome == null || !isEnabled() )
+        {
+            return null;
+        }
+
+        File home = new File( mavenHome ).getAbsoluteFile();
+        File file = new File( home, "lib/" + FILE_NAME );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        try
+        {
+            StartupManifest manifest = read( file );
+            if ( manifest.isUpToDate( home ) )
+            {
+                manifest.libDirectory = new File( home, "lib" );
+                return manifest;
+            }
+        }
+        catch ( IOException e )
+        {
+            // same as missing: the resources are still there
+        }
+        return null;
+    }
+
+    /**
+     * @return a copy of the build properties of the distribution
+     */
+    public Properties getBuildProperties()
+    {
+        Properties properties = new Properties();
+        properties.putAll( buildProperties );
+        return properties;
+    }
+
+    /**
+     * @param loggerFactory the class name of the ILoggerFactory of the SLF4J binding
+     * @return the class name of the corresponding Slf4jConfiguration, or <code>null</code> if none is declared
+     */
+    public String getSlf4jConfiguration( String loggerFactory )
+    {
+        return slf4jConfigurations.get( loggerFactory );
+    }
+
+    /**
+     * Returns the components of the given realm, in the order of its class path, provided all its entries are jars
+     * of the <code>lib</code> directory covered by this manifest or directories without Sisu index.
+     *
+     * @param realm the realm
+     * @return the components, or <code>null</code> if the realm is not covered by this manifest
+     */
+    public Components getComponents( ClassRealm realm )
+    {
+        Set<String> classNames = new LinkedHashSet<>();
+        for ( URL url : realm.getURLs() )
+        {
+            File file = toFile( url );
+            if ( file != null && file.isDirectory() && !new File( file, SISU_INDEX ).exists() )
+            {
+                // such as conf/logging
+                continue;
+            }
+            if ( file == null || !libDirectory.equals( file.getAbsoluteFile().getParentFile() ) )
+            {
+                return null;
+            }
+            List<String> jarComponents = components.get( file.getName() );
+            if ( jarComponents == null )
+            {
+                return null;
+            }
+            classNames.addAll( jarComponents );
+        }
+        return new Components( new URLClassSpace( realm ), new ArrayList<>( classNames ) );
+    }
+
+    boolean isUpToDate( File home )
+    {
+        Map<String, Long> installed = new LinkedHashMap<>();
+        listJars( new File( home, "lib" ), installed );
+        listJars( new File( home, "boot" ), installed );
+        return installed.equals( jars );
+    }
+
+    private static void listJars( File directory, Map<String, Long> jars )
+    {
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                if ( file.getName().endsWith( ".jar" ) )
+                {
+                    jars.put( file.getName(), file.length() );
+                }
+            }
+        }
+    }
+
+    private static File toFile( URL url )
+    {
+        if ( !"file".equals( url.getProtocol() ) )
+        {
+            return null;
+        }
+        try
+        {
+            return new File( url.toURI() );
+        }
+        catch ( URISyntaxException | IllegalArgumentException e )
+        {
+            return new File( url.getPath() );
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Binary form: magic, format, then the jars, build properties, SLF4J
+    // configurations and components, each as a count followed by entries.
+    // Strings are stored as their UTF-8 length followed by their bytes.
+    // ----------------------------------------------------------------------
+
+    static StartupManifest read( File file )
+        throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ ) )
+        {
+            ByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+
+            if ( buffer.getInt() != MAGIC || buffer.getInt() != FORMAT )
+            {
+                throw new IOException( "Unsupported startup manifest " + file );
+            }
+
+            Map<String, Long> jars = new LinkedHashMap<>();
+            for ( int i = buffer.getInt(); i > 0; i-- )
+            {
+                jars.put( getString( buffer ), buffer.getLong() );
+            }
+
+            Properties buildProperties = new Properties();
+            for ( int i = buffer.getInt(); i > 0; i-- )
+            {
+                buildProperties.setProperty( getString( buffer ), getString( buffer ) );
+            }
+
+            Map<String, String> slf4jConfigurations = new LinkedHashMap<>();
+            for ( int i = buffer.getInt(); i > 0; i-- )
+            {
+                slf4jConfigurations.put( getString( buffer ), getString( buffer ) );
+            }
+
+            Map<String, List<String>> components = new LinkedHashMap<>();
+            for ( int i = buffer.getInt(); i > 0; i-- )
+            {
+                String jar = getString( buffer );
+                String[] classNames = new String[buffer.getInt()];
+                for ( int j = 0; j < classNames.length; j++ )
+                {
+                    classNames[j] = getString( buffer );
+                }
+                components.put( jar, Collections.unmodifiableList( Arrays.asList( classNames ) ) );
+            }
+
+            return new StartupManifest( jars, buildProperties, slf4jConfigurations, components );
+        }
+        catch ( BufferUnderflowException | IllegalArgumentException e )
+        {
+            throw new IOException( "Corrupted startup manifest " + file, e );
+        }
+    }
+
+    private static String getString( ByteBuffer buffer )
+    {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    void write( File file )
+        throws IOException
+    {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories( directory.toPath() );
+        File tmp = File.createTempFile( file.getName(), ".tmp", directory );
+        try ( DataOutputStream out =
+            new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( tmp.toPath() ) ) ) )
+        {
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT );
+
+            out.writeInt( jars.size() );
+            for ( Map.Entry<String, Long> jar : jars.entrySet() )
+            {
+                writeString( out, jar.getKey() );
+                out.writeLong( jar.getValue() );
+            }
+
+            out.writeInt( buildProperties.size() );
+            for ( String key : buildProperties.stringPropertyNames() )
+            {
+                writeString( out, key );
+                writeString( out, buildProperties.getProperty( key ) );
+            }
+
+            out.writeInt( slf4jConfigurations.size() );
+            for ( Map.Entry<String, String> configuration : slf4jConfigurations.entrySet() )
+            {
+                writeString( out, configuration.getKey() );
+                writeString( out, configuration.getValue() );
+            }
+
+            out.writeInt( components.size() );
+            for ( Map.Entry<String, List<String>> jar : components.entrySet() )
+            {
+                writeString( out, jar.getKey() );
+                out.writeInt( jar.getValue().size() );
+                for ( String className : jar.getValue() )
+                {
+                    writeString( out, className );
+                }
+            }
+        }
+        Files.move( tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+    }
+
+    private static void writeString( DataOutputStream out, String s )
+        throws IOException
+    {
+        byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    /**
+     * Generates the manifest of the jars of the class path of this JVM, which must be the ones of the
+     * <code>lib</code> and <code>boot</code> directories of the distribution.
+     *
+     * @param args the manifest file to write
+     * @throws IOException if a jar cannot be read or the manifest cannot be written
+     */
+    public static void main( String[] args )
+        throws IOException
+    {
+        if ( args.length != 1 )
+        {
+            System.err.println( "Usage: StartupManifest <manifest file>" );
+            System.exit( 1 );
+        }
+
+        Map<String, Long> jars = new LinkedHashMap<>();
+        Properties buildProperties = new Properties();
+        Map<String, String> slf4jConfigurations = new LinkedHashMap<>();
+        Map<String, List<String>> components = new LinkedHashMap<>();
+
+        for ( String entry : System.getProperty( "java.class.path" ).split( File.pathSeparator ) )
+        {
+            File file = new File( entry );
+            if ( !file.isFile() || !file.getName().endsWith( ".jar" ) )
+            {
+                // a class directory is never part of a distribution, the manifest will be seen as stale
+                System.err.println( "[WARNING] Not a jar, skipped from the startup manifest: " + entry );
+                continue;
+            }
+
+            jars.put( file.getName(), file.length() );
+
+            try ( JarFile jar = new JarFile( file ) )
+            {
+                ZipEntry buildEntry = jar.getEntry( BUILD_PROPERTIES );
+                if ( buildEntry != null && buildProperties.isEmpty() )
+                {
+                    try ( InputStream is = jar.getInputStream( buildEntry ) )
+                    {
+                        buildProperties.load( is );
+                    }
+                }
+
+                ZipEntry slf4jEntry = jar.getEntry( SLF4J_CONFIGURATION );
+                if ( slf4jEntry != null )
+                {
+                    Properties configurations = new Properties();
+                    try ( InputStream is = jar.getInputStream( slf4jEntry ) )
+                    {
+                        configurations.load( is );
+                    }
+                    for ( String binding : configurations.stringPropertyNames() )
+                    {
+                        // first declaration wins, same as the class path lookup
+                        if ( !slf4jConfigurations.containsKey( binding ) )
+                        {
+                            slf4jConfigurations.put( binding, configurations.getProperty( binding ) );
+                        }
+                    }
+                }
+
+                ZipEntry indexEntry = jar.getEntry( SISU_INDEX );
+                List<String> classNames = new ArrayList<>();
+                if ( indexEntry != null )
+                {
+                    try ( BufferedReader reader = new BufferedReader(
+                        new InputStreamReader( jar.getInputStream( indexEntry ), StandardCharsets.UTF_8 ) ) )
+                    {
+                        for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+                        {
+                            line = line.trim();
+                            if ( !line.isEmpty() && !line.startsWith( "#" ) )
+                            {
+                                classNames.add( line );
+                            }
+                        }
+                    }
+                }
+                components.put( file.getName(), classNames );
+            }
+        }
+
+        File file = new File( args[0] );
+        new StartupManifest( jars, buildProperties, slf4jConfigurations, components ).write( file );
+        System.out.println( "Startup manifest of " + jars.size() + " jars written to " + file );
+    }
+
+    /**
+     * Components of a realm, bound into the container by {@link #asModule()}.
+     */
+    public static final class Components
+    {
+        private final ClassSpace space;
+
+        private final List<String> classNames;
+
+        Components( ClassSpace space, List<String> classNames )
+        {
+            this.space = space;
+            this.classNames = Collections.unmodifiableList( classNames );
+        }
+
+        public List<String> getClassNames()
+        {
+            return classNames;
+        }
+
+        /**
+         * @return a module binding the components the same way Sisu index scanning does
+         */
+        public Module asModule()
+        {
+            return new Module()
+            {
+                @Override
+                public void configure( Binder binder )
+                {
+                    binder.bind( ClassSpace.class ).toInstance( space );
+
+                    QualifiedTypeBinder typeBinder = new QualifiedTypeBinder( binder );
+                    for ( String className : classNames )
+                    {
+                        Class<?> clazz;
+                        try
+                        {
+                            clazz = space.loadClass( className );
+                        }
+                        catch ( TypeNotPresentException | LinkageError e )
+                        {
+                            // same as index scanning: broken entries are skipped
+                            continue;
+                        }
+                        typeBinder.hear( clazz, space );
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the stages of the <code>MavenCli</code> bootstrap, and
+ * writes them as JSON once the invocation ends. Profiling is enabled with
+ * <code>-Dmaven.startup.profile=&lt;file&gt;</code>, either as a JVM option or on the Maven command line; when it is
+ * not set, nothing is measured. Every span is also emitted as a flight recorder event by {@link BootstrapEvents}.
+ * <p>
+ * Spans may be nested and may be opened from several threads; each thread keeps its own stack so that the parent of
+ * a span is the innermost span still open on the same thread.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class StartupProfiler
+{
+    public static final String PROFILE_PROPERTY = "maven.startup.profile";
+
+    private static final StartupProfiler DISABLED = new StartupProfiler( null );
+
+    static final Span NO_SPAN = new Span()
+    {
+        @Override
+        public void close()
+        {
+        }
+    };
+
+    private final String file;
+
+    private final long origin = System.nanoTime();
+
+    private final List<Record> records = new ArrayList<>();
+
+    private final ThreadLocal<Deque<Record>> open = new ThreadLocal<Deque<Record>>()
+    {
+        @Override
+        protected Deque<Record> initialValue()
+        {
+            return new ArrayDeque<>();
+        }
+    };
+
+    private ThreadMXBean threads;
+
+    /**
+     * The thread bean when it measures allocations, through the <code>com.sun.management</code> extension looked up
+     * reflectively since not every runtime has it.
+     */
+    private ThreadMXBean allocations;
+
+    private Method getThreadAllocatedBytes;
+
+    private StartupProfiler( String file )
+    {
+        this.file = file;
+        if ( file != null )
+        {
+            threads = ManagementFactory.getThreadMXBean();
+            if ( !threads.isCurrentThreadCpuTimeSupported() )
+            {
+                threads = null;
+            }
+            else if ( !threads.isThreadCpuTimeEnabled() )
+            {
+                threads.setThreadCpuTimeEnabled( true );
+            }
+
+            enableAllocations( ManagementFactory.getThreadMXBean() );
+        }
+    }
+
+    private void enableAllocations( ThreadMXBean bean )
+    {
+        try
+        {
+            // the methods of the exported interface, those of the bean class may not be accessible
+            Class<?> type = Class.forName( "com.sun.management.ThreadMXBean" );
+            if ( type.isInstance( bean )
+                && Boolean.TRUE.equals( type.getMethod( "isThreadAllocatedMemorySupported" ).invoke( bean ) ) )
+            {
+                type.getMethod( "setThreadAllocatedMemoryEnabled", boolean.class ).invoke( bean, true );
+                getThreadAllocatedBytes = type.getMethod( "getThreadAllocatedBytes", long.class );
+                allocations = bean;
+            }
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            // allocated bytes are reported as -1
+        }
+    }
+
+    /**
+     * Creates a profiler for an invocation, looking for the profile file in the system properties first and in the
+     * <code>-D</code> options of the command line next, since those are only applied later in the bootstrap.
+     *
+     * @param args the command line arguments, may be <code>null</code>
+     * @return the profiler, never <code>null</code>
+     */
+    public static StartupProfiler forInvocation( String[] args )
+    {
+        String file = System.getProperty( PROFILE_PROPERTY );
+        if ( file == null && args != null )
+        {
+            String prefix = PROFILE_PROPERTY + "=";
+            for ( int i = 0; i < args.length; i++ )
+            {
+                String arg = args[i];
+                if ( arg.startsWith( "-D" + prefix ) )
+                {
+                    file = arg.substring( 2 + prefix.length() );
+                }
+                else if ( "-D".equals( arg ) && i + 1 < args.length && args[i + 1].startsWith( prefix ) )
+                {
+                    file = args[i + 1].substring( prefix.length() );
+                }
+            }
+        }
+        return file == null || file.isEmpty() ? DISABLED : new StartupProfiler( file );
+    }
+
+    public static StartupProfiler disabled()
+    {
+        return DISABLED;
+    }
+
+    public boolean isEnabled()
+    {
+        return file != null;
+    }
+
+    /**
+     * @return the file the profile will be written to, or <code>null</code> when disabled
+     */
+    public String getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Opens a span on the current thread, to be closed on the same thread.
+     *
+     * @param name the name of the span
+     * @return the span, never <code>null</code>
+     */
+    public Span start( String name )
+    {
+        Span event = BootstrapEvents.phase( name );
+        if ( file == null )
+        {
+            return event;
+        }
+
+        Deque<Record> stack = open.get();
+        Record record = new Record( name, stack.isEmpty() ? null : stack.peek().name, event );
+        record.thread = Thread.currentThread().getName();
+        record.cpuNanos = cpuTime();
+        record.allocatedBytes = allocatedBytes();
+        record.startNanos = System.nanoTime();
+        stack.push( record );
+        return record;
+    }
+
+    private long cpuTime()
+    {
+        return threads != null ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long allocatedBytes()
+    {
+        if ( allocations == null )
+        {
+            return -1;
+        }
+        try
+        {
+            return (Long) getThreadAllocatedBytes.invoke( allocations, Thread.currentThread().getId() );
+        }
+        catch ( ReflectiveOperationException | RuntimeException e )
+        {
+            return -1;
+        }
+    }
+
+    private void end( Record record )
+    {
+        long now = System.nanoTime();
+        record.event.close();
+        record.wallNanos = now - record.startNanos;
+        record.startNanos -= origin;
+        record.cpuNanos = record.cpuNanos < 0 ? -1 : cpuTime() - record.cpuNanos;
+        record.allocatedBytes = record.allocatedBytes < 0 ? -1 : allocatedBytes() - record.allocatedBytes;
+
+        Deque<Record> stack = open.get();
+        stack.remove( record );
+
+        synchronized ( records )
+        {
+            records.add( record );
+        }
+    }
+
+    /**
+     * Writes the closed spans, in the order they were opened, to the profile file.
+     *
+     * @param baseDirectory the directory relative paths are resolved against
+     * @return the written file, or <code>null</code> when disabled
+     * @throws IOException if the file cannot be written
+     */
+    public File write( File baseDirectory )
+        throws IOException
+    {
+        if ( file == null )
+        {
+            return null;
+        }
+
+        File target = new File( file );
+        if ( !target.isAbsolute() && baseDirectory != null )
+        {
+            target = new File( baseDirectory, file );
+        }
+        File parent = target.getAbsoluteFile().getParentFile();
+        if ( parent != null )
+        {
+            Files.createDirectories( parent.toPath() );
+        }
+
+        List<Record> spans;
+        synchronized ( records )
+        {
+            spans = new ArrayList<>( records );
+        }
+        Collections.sort( spans, new Comparator<Record>()
+        {
+            @Override
+            public int compare( Record r1, Record r2 )
+            {
+                return Long.compare( r1.startNanos, r2.startNanos );
+            }
+        } );
+
+        try ( Writer writer =
+            new BufferedWriter( new OutputStreamWriter( Files.newOutputStream( target.toPath() ),
+                                                        StandardCharsets.UTF_8 ) ) )
+        {
+            writer.write( "{\n  \"unit\": \"ns\",\n  \"spans\": [" );
+            String separator = "\n";
+            for ( Record record : spans )
+            {
+                writer.write( separator );
+                writer.write( "    {\"name\": " + quote( record.name ) );
+                writer.write( ", \"parent\": " + quote( record.parent ) );
+                writer.write( ", \"thread\": " + quote( record.thread ) );
+                writer.write( ", \"start\": " + record.startNanos );
+                writer.write( ", \"wall\": " + record.wallNanos );
+                writer.write( ", \"cpu\": " + record.cpuNanos );
+                writer.write( ", \"allocatedBytes\": " + record.allocatedBytes + "}" );
+                separator = ",\n";
+            }
+            writer.write( "\n  ]\n}\n" );
+        }
+
+        return target;
+    }
+
+    private static String quote( String value )
+    {
+        if ( value == null )
+        {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder( value.length() + 2 ).append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            if ( c == '"' || c == '\\' )
+            {
+                sb.append( '\\' ).append( c );
+            }
+            else if ( c < 0x20 )
+            {
+                sb.append( String.format( "\\u%04x", (int) c ) );
+            }
+            else
+            {
+                sb.append( c );
+            }
+        }
+        return sb.append( '"' ).toString();
+    }
+
+    /**
+     * An open span, closed with try-with-resources.
+     */
+    public interface Span
+        extends AutoCloseable
+    {
+        @Override
+        void close();
+    }
+
+    private final class Record
+        implements Span
+    {
+        final String name;
+
+        final String parent;
+
+        final Span event;
+
+        String thread;
+
+        long startNanos;
+
+        long wallNanos;
+
+        long cpuNanos;
+
+        long allocatedBytes;
+
+        Record( String name, String parent, Span event )
+        {
+            this.name = name;
+            this.parent = parent;
+            this.event = event;
+        }
+
+        @Override
+        public void close()
+        {
+            end( this );
+        }
+    }
+}
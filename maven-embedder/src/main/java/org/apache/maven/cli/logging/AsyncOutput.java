@@ -0,0 +1,414 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous standard output: {@link System#out} and {@link System#err} are replaced by streams publishing what is
+ * printed into a bounded lock-free ring buffer, shared by both so their relative order is kept, which a single
+ * writer thread drains in batches to the original streams. Printing threads thus no longer contend on the lock of
+ * the console stream, at the price of output reaching it slightly later: {@link #drain()} waits for everything
+ * printed so far to be written, and is called at the end of each build and on JVM shutdown.
+ * <p>
+ * When the ring is full, the {@link Overflow} policy given by <code>-Dmaven.logging.async=block|drop-debug|spill</code>
+ * applies. The capacity is given by <code>-Dmaven.logging.async.capacity</code>, 8192 lines by default.
+ *
+ * @since 3.6.4
+ */
+public final class AsyncOutput
+{
+    public static final String OVERFLOW_PROPERTY = "maven.logging.async";
+
+    public static final String CAPACITY_PROPERTY = "maven.logging.async.capacity";
+
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos( 10 );
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 50 );
+
+    /**
+     * What a printing thread does when the ring is full.
+     */
+    public enum Overflow
+    {
+        /**
+         * Wait for the writer to make room.
+         */
+        BLOCK,
+
+        /**
+         * Discard <code>[DEBUG]</code> lines, wait for the writer for the others. The number of discarded lines is
+         * reported by {@link AsyncOutput#drain()}.
+         */
+        DROP_DEBUG,
+
+        /**
+         * Queue beyond the capacity of the ring, never waiting nor discarding, at the cost of unbounded memory.
+         */
+        SPILL;
+
+        /**
+         * @param value the property value, like <code>drop-debug</code>
+         * @return the policy, or {@code null} if the value is {@code null}
+         * @throws IllegalArgumentException if the value is not a policy name
+         */
+        public static Overflow parse( String value )
+        {
+            if ( value == null )
+            {
+                return null;
+            }
+            try
+            {
+                return valueOf( value.trim().replace( '-', '_' ).toUpperCase( Locale.ENGLISH ) );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                throw new IllegalArgumentException( "Invalid " + OVERFLOW_PROPERTY + " value [" + value
+                    + "]. Supported values are (block|drop-debug|spill)." );
+            }
+        }
+    }
+
+    private static AsyncOutput instance;
+
+    private final Overflow overflow;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<PrintedText> ring;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<PrintedText> spilled = new ConcurrentLinkedQueue<>();
+
+    private final Object spillLock = new Object();
+
+    private volatile boolean spilling;
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long written;
+
+    private volatile boolean parked;
+
+    private final Thread writer;
+
+    private AsyncOutput( Overflow overflow, int capacity )
+    {
+        this.overflow = overflow;
+        int size = Integer.highestOneBit( Math.max( 2, capacity - 1 ) ) << 1;
+        this.mask = size - 1;
+        this.ring = new AtomicReferenceArray<>( size );
+        this.writer = new Thread( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                write();
+            }
+        }, "maven-async-output" );
+        writer.setDaemon( true );
+        writer.start();
+    }
+
+    /**
+     * @return the policy requested by <code>-Dmaven.logging.async</code>, or {@code null} if asynchronous output is
+     *         not requested
+     */
+    public static Overflow getRequestedOverflow()
+    {
+        return Overflow.parse( System.getProperty( OVERFLOW_PROPERTY ) );
+    }
+
+    /**
+     * Replaces the standard streams by asynchronous ones writing to the current ones, unless they already are. The
+     * ring and its writer thread are created by the first call and shared by the later ones.
+     *
+     * @param overflow the policy when the ring is full, ignored after the first call
+     */
+    public static synchronized void install( Overflow overflow )
+    {
+        if ( instance == null )
+        {
+            instance = new AsyncOutput( overflow, Integer.getInteger( CAPACITY_PROPERTY, DEFAULT_CAPACITY ) );
+            Runtime.getRuntime().addShutdownHook( new Thread( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    drain();
+                }
+            }, "maven-async-output-drain" ) );
+        }
+        if ( !( System.out instanceof Stream ) )
+        {
+            System.setOut( instance.new Stream( System.out ) );
+        }
+        if ( !( System.err instanceof Stream ) )
+        {
+            System.setErr( instance.new Stream( System.err ) );
+        }
+    }
+
+    /**
+     * Waits until everything printed so far through asynchronous streams is written. Does nothing if they were never
+     * installed.
+     */
+    public static void drain()
+    {
+        AsyncOutput output;
+        synchronized ( AsyncOutput.class )
+        {
+            output = instance;
+        }
+        if ( output != null )
+        {
+            output.await();
+        }
+    }
+
+    private void await()
+    {
+        if ( Thread.currentThread() == writer )
+        {
+            return;
+        }
+
+        long expected = published.get();
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT;
+        while ( written < expected && writer.isAlive() && System.nanoTime() < deadline )
+        {
+            LockSupport.unpark( writer );
+            LockSupport.parkNanos( this, PARK_NANOS );
+        }
+
+        long count = dropped.getAndSet( 0 );
+        if ( count > 0 )
+        {
+            Stream err = System.err instanceof Stream ? (Stream) System.err : null;
+            PrintStream target = err != null ? err.target : System.err;
+            target.println( "[WARNING] " + count + " debug lines were dropped by the asynchronous output" );
+            target.flush();
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Producers
+    // ----------------------------------------------------------------------
+
+    private void publish( PrintedText entry )
+    {
+        if ( !spilling && offer( entry ) )
+        {
+            published.incrementAndGet();
+        }
+        else
+        {
+            switch ( overflow )
+            {
+                case SPILL:
+                    synchronized ( spillLock )
+                    {
+                        // from now on the ring is bypassed until the writer caught up, to keep the order
+                        spilling = true;
+                        spilled.add( entry );
+                    }
+                    published.incrementAndGet();
+                    break;
+
+                case DROP_DEBUG:
+                    if ( entry.isDebug() )
+                    {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    block( entry );
+                    break;
+
+                default:
+                    block( entry );
+                    break;
+            }
+        }
+
+        if ( parked )
+        {
+            LockSupport.unpark( writer );
+        }
+    }
+
+    private void block( PrintedText entry )
+    {
+        while ( !offer( entry ) )
+        {
+            if ( !writer.isAlive() )
+            {
+                // never lose output, even if the writer died
+                entry.writeTo();
+                return;
+            }
+            LockSupport.unpark( writer );
+            LockSupport.parkNanos( this, PARK_NANOS );
+        }
+        published.incrementAndGet();
+    }
+
+    private boolean offer( PrintedText entry )
+    {
+        while ( true )
+        {
+            long sequence = tail.get();
+            if ( sequence - head.get() > mask )
+            {
+                return false;
+            }
+            if ( tail.compareAndSet( sequence, sequence + 1 ) )
+            {
+                // the slot was cleared by the writer before it moved head past it
+                ring.lazySet( (int) sequence & mask, entry );
+                return true;
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Writer
+    // ----------------------------------------------------------------------
+
+    private void write()
+    {
+        while ( true )
+        {
+            PrintStream current = null;
+            int count = 0;
+            long sequence = head.get();
+            // bounded batches, so output keeps being flushed under a steady load
+            while ( count <= mask && sequence != tail.get() )
+            {
+                int index = (int) sequence & mask;
+                PrintedText entry = ring.get( index );
+                if ( entry == null )
+                {
+                    // claimed but not yet stored by its producer
+                    Thread.yield();
+                    continue;
+                }
+                ring.lazySet( index, null );
+                head.lazySet( ++sequence );
+                current = write( entry, current );
+                count++;
+            }
+
+            if ( spilling )
+            {
+                synchronized ( spillLock )
+                {
+                    for ( PrintedText entry = spilled.poll(); entry != null; entry = spilled.poll() )
+                    {
+                        current = write( entry, current );
+                        count++;
+                    }
+                    spilling = false;
+                }
+            }
+
+            if ( count > 0 )
+            {
+                current.flush();
+                written += count;
+            }
+            else
+            {
+                parked = true;
+                if ( head.get() == tail.get() && !spilling )
+                {
+                    LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( 100 ) );
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private static PrintStream write( PrintedText entry, PrintStream current )
+    {
+        if ( current != null && current != entry.target )
+        {
+            // interleaved out and err must reach the console in order
+            current.flush();
+        }
+        try
+        {
+            entry.writeTo();
+        }
+        catch ( RuntimeException e )
+        {
+            // same as PrintStream: output errors are not thrown to the caller
+        }
+        return entry.target;
+    }
+
+    /**
+     * The asynchronous replacement of a standard stream. {@link #flush()} only wakes the writer up: waiting for the
+     * output to be written would make printing synchronous again, as SLF4J bindings flush after each line.
+     */
+    private final class Stream
+        extends PrintedTextStream
+    {
+        Stream( PrintStream target )
+        {
+            super( target );
+        }
+
+        @Override
+        void publish( PrintedText text )
+        {
+            AsyncOutput.this.publish( text );
+        }
+
+        @Override
+        public void flush()
+        {
+            if ( parked )
+            {
+                LockSupport.unpark( writer );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            await();
+            target.close();
+        }
+    }
+}
@@ -42,4 +42,16 @@ public void activate()
     {
         logger.warn( "reset(): operation not supported" );
     }
+
+    /**
+     * Sets the level of a logger category, the logger of that name and the loggers below it, before activation.
+     *
+     * @param name the category
+     * @param level the level, as a <code>org.codehaus.plexus.logging.Logger.LEVEL_*</code> constant
+     * @since 3.6.4
+     */
+    public void setLoggerLevel( String name, int level )
+    {
+        logger.warn( "setLoggerLevel: operation not supported" );
+    }
 }
@@ -0,0 +1,337 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.Console;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.shared.utils.logging.MessageUtils;
+import org.slf4j.event.Level;
+
+/**
+ * The console streams when no color is output: on a batch mode or log file run, with
+ * <code>-Dstyle.color=never</code>, or when the standard output is not a terminal. The ANSI processing of jansi is
+ * then useless, so instead of installing it, the standard output is written through a 64 KiB buffer straight to its
+ * file descriptor. The buffer is flushed every 100 milliseconds, for prompts and slow builds to show, before anything
+ * is written to the standard error stream, so the two keep their order, and before exit.
+ * <p>
+ * Disabled with <code>-Dmaven.console.plain=false</code>. It also holds the level prefixes of log lines, rendered once
+ * for the current color mode, see {@link #getLevelPrefix(Level)}.
+ *
+ * @since 3.6.4
+ */
+public final class ConsoleOutput
+{
+    public static final String ENABLED_PROPERTY = "maven.console.plain";
+
+    private static final String STYLE_COLOR_PROPERTY = "style.color";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long FLUSH_INTERVAL = 100;
+
+    private static final Level[] LEVELS = Level.values();
+
+    /**
+     * The options other than the log file whose short or long name starts with <code>l</code>.
+     */
+    private static final List<String> OTHER_L_OPTIONS =
+        Arrays.asList( "llr", "lax-checksums", "legacy-local-repository" );
+
+    private static ConsoleOutput instance;
+
+    private static volatile LevelPrefixes prefixes;
+
+    private final PrintStream originalOut;
+
+    private final PrintStream originalErr;
+
+    private final PrintStream out;
+
+    private final PrintStream err;
+
+    private final Thread flusher;
+
+    private final Thread shutdownHook;
+
+    private ConsoleOutput()
+    {
+        originalOut = System.out;
+        originalErr = System.err;
+        out = new PrintStream( new BufferedOutputStream( new FileOutputStream( FileDescriptor.out ), BUFFER_SIZE ),
+                               false );
+        err = new PrintStream( new ErrorStream( new FileOutputStream( FileDescriptor.err ) ), true );
+        flusher = new Thread( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    while ( !Thread.currentThread().isInterrupted() )
+                    {
+                        Thread.sleep( FLUSH_INTERVAL );
+                        out.flush();
+                    }
+                }
+                catch ( InterruptedException e )
+                {
+                    // uninstalled
+                }
+            }
+        }, "maven-console-flush" );
+        flusher.setDaemon( true );
+        shutdownHook = new Thread( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                out.flush();
+            }
+        }, "maven-console-flush-on-exit" );
+    }
+
+    /**
+     * Installs the plain console streams if the command line and the terminal ask for no color, before anything
+     * else replaces the standard streams.
+     *
+     * @param args the command line arguments
+     * @return {@code true} if installed, jansi then being useless, {@code false} if color may be output
+     */
+    public static synchronized boolean install( String[] args )
+    {
+        if ( instance != null )
+        {
+            return true;
+        }
+        if ( !Boolean.parseBoolean( System.getProperty( ENABLED_PROPERTY, "true" ) ) || !isColorless( args ) )
+        {
+            return false;
+        }
+        MessageUtils.setColorEnabled( false );
+        prefixes = null;
+        instance = new ConsoleOutput();
+        System.setOut( instance.out );
+        System.setErr( instance.err );
+        instance.flusher.start();
+        Runtime.getRuntime().addShutdownHook( instance.shutdownHook );
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the plain console streams are installed
+     */
+    public static synchronized boolean isInstalled()
+    {
+        return instance != null;
+    }
+
+    /**
+     * Flushes the plain console streams and restores the previous ones.
+     */
+    public static synchronized void uninstall()
+    {
+        ConsoleOutput output = instance;
+        if ( output != null )
+        {
+            instance = null;
+            output.flusher.interrupt();
+            output.out.flush();
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook( output.shutdownHook );
+            }
+            catch ( IllegalStateException e )
+            {
+                // shutting down, the hook flushes again
+            }
+            System.setOut( output.originalOut );
+            System.setErr( output.originalErr );
+        }
+    }
+
+    /**
+     * Tells whether no color is output, from the options that disable it and from the terminal. Options read from
+     * <code>.mvn/maven.config</code> are not known yet: color is then assumed possible.
+     */
+    static boolean isColorless( String[] args )
+    {
+        String styleColor = System.getProperty( STYLE_COLOR_PROPERTY );
+        boolean colorless = false;
+        for ( int i = 0; i < args.length; i++ )
+        {
+            String arg = args[i];
+            if ( "-D".equals( arg ) && i + 1 < args.length )
+            {
+                arg = "-D" + args[++i];
+            }
+            if ( arg.startsWith( "-D" + STYLE_COLOR_PROPERTY + '=' ) )
+            {
+                styleColor = arg.substring( STYLE_COLOR_PROPERTY.length() + 3 );
+            }
+            else if ( "-B".equals( arg ) || "--batch-mode".equals( arg ) || isLogFile( arg ) )
+            {
+                colorless = true;
+            }
+        }
+        if ( "always".equals( styleColor ) )
+        {
+            return false;
+        }
+        return colorless || "never".equals( styleColor ) || !isTerminal();
+    }
+
+    /**
+     * Tells whether an argument is the log file option, resolved as the command line parser does: by name, with or
+     * without a value after <code>=</code>, then as <code>-l</code> directly followed by its value, as in
+     * <code>-lbuild.log</code>, unless it names another option.
+     */
+    private static boolean isLogFile( String arg )
+    {
+        if ( !arg.startsWith( "-" ) )
+        {
+            return false;
+        }
+        boolean longForm = arg.startsWith( "--" );
+        String option = arg.substring( longForm ? 2 : 1 );
+        int eq = option.indexOf( '=' );
+        String name = eq != -1 ? option.substring( 0, eq ) : option;
+        if ( "l".equals( name ) || "log-file".equals( name ) )
+        {
+            return true;
+        }
+        return !longForm && name.startsWith( "l" ) && !OTHER_L_OPTIONS.contains( name );
+    }
+
+    private static boolean isTerminal()
+    {
+        Console console = System.console();
+        if ( console == null )
+        {
+            return false;
+        }
+        try
+        {
+            // since Java 22, a console is returned whether or not the streams are redirected
+            Method isTerminal = Console.class.getMethod( "isTerminal" );
+            return (Boolean) isTerminal.invoke( console );
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            return true;
+        }
+    }
+
+    /**
+     * @param level the level
+     * @return the prefix of log lines of the level, like <code>[ERROR] </code>, styled if color is enabled
+     */
+    public static String getLevelPrefix( Level level )
+    {
+        boolean color = MessageUtils.isColorEnabled();
+        LevelPrefixes current = prefixes;
+        if ( current == null || current.color != color )
+        {
+            current = new LevelPrefixes( color );
+            prefixes = current;
+        }
+        return current.prefixes[level.ordinal()];
+    }
+
+    /**
+     * The level prefixes for one color mode.
+     */
+    private static final class LevelPrefixes
+    {
+        final boolean color;
+
+        final String[] prefixes = new String[LEVELS.length];
+
+        LevelPrefixes( boolean color )
+        {
+            this.color = color;
+            for ( Level level : LEVELS )
+            {
+                String rendered;
+                switch ( level )
+                {
+                    case ERROR:
+                        rendered = MessageUtils.level().error( "ERROR" );
+                        break;
+                    case WARN:
+                        rendered = MessageUtils.level().warning( "WARNING" );
+                        break;
+                    case INFO:
+                        rendered = MessageUtils.level().info( "INFO" );
+                        break;
+                    default:
+                        rendered = MessageUtils.level().debug( level.name() );
+                        break;
+                }
+                prefixes[level.ordinal()] = '[' + rendered + "] ";
+            }
+        }
+    }
+
+    /**
+     * The standard error stream, flushing the standard output first.
+     */
+    private final class ErrorStream
+        extends OutputStream
+    {
+        private final OutputStream delegate;
+
+        ErrorStream( OutputStream delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            out.flush();
+            delegate.write( b );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            out.flush();
+            delegate.write( b, off, len );
+        }
+
+        @Override
+        public void flush()
+            throws IOException
+        {
+            delegate.flush();
+        }
+    }
+}
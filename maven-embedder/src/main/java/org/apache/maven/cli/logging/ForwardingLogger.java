@@ -0,0 +1,781 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * A {@link Logger} forwarding to another one, funnelling all calls through {@link #isEnabled(Level, Marker)} and
+ * {@link #log(Level, Marker, String, Object[], Throwable)} so that subclasses can filter, redirect or duplicate
+ * logging events by overriding just those two methods.
+ *
+ * @since 3.6.4
+ */
+public abstract class ForwardingLogger
+    implements Logger
+{
+    private final Logger delegate;
+
+    protected ForwardingLogger( Logger delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the logger calls are forwarded to
+     */
+    protected Logger getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * Tells whether events of the given level are logged, by default as the delegate does.
+     *
+     * @param level the level
+     * @param marker the marker, or {@code null}
+     * @return {@code true} if events of the level are logged
+     */
+    protected boolean isEnabled( Level level, Marker marker )
+    {
+        switch ( level )
+        {
+            case TRACE:
+                return marker != null ? delegate.isTraceEnabled( marker ) : delegate.isTraceEnabled();
+            case DEBUG:
+                return marker != null ? delegate.isDebugEnabled( marker ) : delegate.isDebugEnabled();
+            case INFO:
+                return marker != null ? delegate.isInfoEnabled( marker ) : delegate.isInfoEnabled();
+            case WARN:
+                return marker != null ? delegate.isWarnEnabled( marker ) : delegate.isWarnEnabled();
+            case ERROR:
+                return marker != null ? delegate.isErrorEnabled( marker ) : delegate.isErrorEnabled();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Logs an enabled event, by default by forwarding it to the delegate. At most one of {@code arguments} and
+     * {@code throwable} is not {@code null}.
+     *
+     * @param level the level
+     * @param marker the marker, or {@code null}
+     * @param format the message or message format
+     * @param arguments the arguments of the message format, or {@code null}
+     * @param throwable the throwable, or {@code null}
+     */
+    protected void log( Level level, Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        switch ( level )
+        {
+            case TRACE:
+                forwardTrace( marker, format, arguments, throwable );
+                break;
+            case DEBUG:
+                forwardDebug( marker, format, arguments, throwable );
+                break;
+            case INFO:
+                forwardInfo( marker, format, arguments, throwable );
+                break;
+            case WARN:
+                forwardWarn( marker, format, arguments, throwable );
+                break;
+            case ERROR:
+                forwardError( marker, format, arguments, throwable );
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void forwardTrace( Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        if ( marker == null )
+        {
+            if ( throwable != null )
+            {
+                delegate.trace( format, throwable );
+            }
+            else if ( arguments != null )
+            {
+                delegate.trace( format, arguments );
+            }
+            else
+            {
+                delegate.trace( format );
+            }
+        }
+        else if ( throwable != null )
+        {
+            delegate.trace( marker, format, throwable );
+        }
+        else if ( arguments != null )
+        {
+            delegate.trace( marker, format, arguments );
+        }
+        else
+        {
+            delegate.trace( marker, format );
+        }
+    }
+
+    private void forwardDebug( Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        if ( marker == null )
+        {
+            if ( throwable != null )
+            {
+                delegate.debug( format, throwable );
+            }
+            else if ( arguments != null )
+            {
+                delegate.debug( format, arguments );
+            }
+            else
+            {
+                delegate.debug( format );
+            }
+        }
+        else if ( throwable != null )
+        {
+            delegate.debug( marker, format, throwable );
+        }
+        else if ( arguments != null )
+        {
+            delegate.debug( marker, format, arguments );
+        }
+        else
+        {
+            delegate.debug( marker, format );
+        }
+    }
+
+    private void forwardInfo( Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        if ( marker == null )
+        {
+            if ( throwable != null )
+            {
+                delegate.info( format, throwable );
+            }
+            else if ( arguments != null )
+            {
+                delegate.info( format, arguments );
+            }
+            else
+            {
+                delegate.info( format );
+            }
+        }
+        else if ( throwable != null )
+        {
+            delegate.info( marker, format, throwable );
+        }
+        else if ( arguments != null )
+        {
+            delegate.info( marker, format, arguments );
+        }
+        else
+        {
+            delegate.info( marker, format );
+        }
+    }
+
+    private void forwardWarn( Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        if ( marker == null )
+        {
+            if ( throwable != null )
+            {
+                delegate.warn( format, throwable );
+            }
+            else if ( arguments != null )
+            {
+                delegate.warn( format, arguments );
+            }
+            else
+            {
+                delegate.warn( format );
+            }
+        }
+        else if ( throwable != null )
+        {
+            delegate.warn( marker, format, throwable );
+        }
+        else if ( arguments != null )
+        {
+            delegate.warn( marker, format, arguments );
+        }
+        else
+        {
+            delegate.warn( marker, format );
+        }
+    }
+
+    private void forwardError( Marker marker, String format, Object[] arguments, Throwable throwable )
+    {
+        if ( marker == null )
+        {
+            if ( throwable != null )
+            {
+                delegate.error( format, throwable );
+            }
+            else if ( arguments != null )
+            {
+                delegate.error( format, arguments );
+            }
+            else
+            {
+                delegate.error( format );
+            }
+        }
+        else if ( throwable != null )
+        {
+            delegate.error( marker, format, throwable );
+        }
+        else if ( arguments != null )
+        {
+            delegate.error( marker, format, arguments );
+        }
+        else
+        {
+            delegate.error( marker, format );
+        }
+    }
+
+    @Override
+    public String getName()
+    {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean isTraceEnabled()
+    {
+        return isEnabled( Level.TRACE, null );
+    }
+
+    @Override
+    public void trace( String msg )
+    {
+        if ( isEnabled( Level.TRACE, null ) )
+        {
+            log( Level.TRACE, null, msg, null, null );
+        }
+    }
+
+    @Override
+    public void trace( String format, Object arg )
+    {
+        if ( isEnabled( Level.TRACE, null ) )
+        {
+            log( Level.TRACE, null, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void trace( String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.TRACE, null ) )
+        {
+            log( Level.TRACE, null, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void trace( String format, Object... arguments )
+    {
+        if ( isEnabled( Level.TRACE, null ) )
+        {
+            log( Level.TRACE, null, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void trace( String msg, Throwable t )
+    {
+        if ( isEnabled( Level.TRACE, null ) )
+        {
+            log( Level.TRACE, null, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isTraceEnabled( Marker marker )
+    {
+        return isEnabled( Level.TRACE, marker );
+    }
+
+    @Override
+    public void trace( Marker marker, String msg )
+    {
+        if ( isEnabled( Level.TRACE, marker ) )
+        {
+            log( Level.TRACE, marker, msg, null, null );
+        }
+    }
+
+    @Override
+    public void trace( Marker marker, String format, Object arg )
+    {
+        if ( isEnabled( Level.TRACE, marker ) )
+        {
+            log( Level.TRACE, marker, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void trace( Marker marker, String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.TRACE, marker ) )
+        {
+            log( Level.TRACE, marker, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void trace( Marker marker, String format, Object... arguments )
+    {
+        if ( isEnabled( Level.TRACE, marker ) )
+        {
+            log( Level.TRACE, marker, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void trace( Marker marker, String msg, Throwable t )
+    {
+        if ( isEnabled( Level.TRACE, marker ) )
+        {
+            log( Level.TRACE, marker, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled()
+    {
+        return isEnabled( Level.DEBUG, null );
+    }
+
+    @Override
+    public void debug( String msg )
+    {
+        if ( isEnabled( Level.DEBUG, null ) )
+        {
+            log( Level.DEBUG, null, msg, null, null );
+        }
+    }
+
+    @Override
+    public void debug( String format, Object arg )
+    {
+        if ( isEnabled( Level.DEBUG, null ) )
+        {
+            log( Level.DEBUG, null, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void debug( String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.DEBUG, null ) )
+        {
+            log( Level.DEBUG, null, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void debug( String format, Object... arguments )
+    {
+        if ( isEnabled( Level.DEBUG, null ) )
+        {
+            log( Level.DEBUG, null, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void debug( String msg, Throwable t )
+    {
+        if ( isEnabled( Level.DEBUG, null ) )
+        {
+            log( Level.DEBUG, null, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled( Marker marker )
+    {
+        return isEnabled( Level.DEBUG, marker );
+    }
+
+    @Override
+    public void debug( Marker marker, String msg )
+    {
+        if ( isEnabled( Level.DEBUG, marker ) )
+        {
+            log( Level.DEBUG, marker, msg, null, null );
+        }
+    }
+
+    @Override
+    public void debug( Marker marker, String format, Object arg )
+    {
+        if ( isEnabled( Level.DEBUG, marker ) )
+        {
+            log( Level.DEBUG, marker, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void debug( Marker marker, String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.DEBUG, marker ) )
+        {
+            log( Level.DEBUG, marker, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void debug( Marker marker, String format, Object... arguments )
+    {
+        if ( isEnabled( Level.DEBUG, marker ) )
+        {
+            log( Level.DEBUG, marker, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void debug( Marker marker, String msg, Throwable t )
+    {
+        if ( isEnabled( Level.DEBUG, marker ) )
+        {
+            log( Level.DEBUG, marker, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled()
+    {
+        return isEnabled( Level.INFO, null );
+    }
+
+    @Override
+    public void info( String msg )
+    {
+        if ( isEnabled( Level.INFO, null ) )
+        {
+            log( Level.INFO, null, msg, null, null );
+        }
+    }
+
+    @Override
+    public void info( String format, Object arg )
+    {
+        if ( isEnabled( Level.INFO, null ) )
+        {
+            log( Level.INFO, null, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void info( String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.INFO, null ) )
+        {
+            log( Level.INFO, null, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void info( String format, Object... arguments )
+    {
+        if ( isEnabled( Level.INFO, null ) )
+        {
+            log( Level.INFO, null, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void info( String msg, Throwable t )
+    {
+        if ( isEnabled( Level.INFO, null ) )
+        {
+            log( Level.INFO, null, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled( Marker marker )
+    {
+        return isEnabled( Level.INFO, marker );
+    }
+
+    @Override
+    public void info( Marker marker, String msg )
+    {
+        if ( isEnabled( Level.INFO, marker ) )
+        {
+            log( Level.INFO, marker, msg, null, null );
+        }
+    }
+
+    @Override
+    public void info( Marker marker, String format, Object arg )
+    {
+        if ( isEnabled( Level.INFO, marker ) )
+        {
+            log( Level.INFO, marker, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void info( Marker marker, String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.INFO, marker ) )
+        {
+            log( Level.INFO, marker, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void info( Marker marker, String format, Object... arguments )
+    {
+        if ( isEnabled( Level.INFO, marker ) )
+        {
+            log( Level.INFO, marker, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void info( Marker marker, String msg, Throwable t )
+    {
+        if ( isEnabled( Level.INFO, marker ) )
+        {
+            log( Level.INFO, marker, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isWarnEnabled()
+    {
+        return isEnabled( Level.WARN, null );
+    }
+
+    @Override
+    public void warn( String msg )
+    {
+        if ( isEnabled( Level.WARN, null ) )
+        {
+            log( Level.WARN, null, msg, null, null );
+        }
+    }
+
+    @Override
+    public void warn( String format, Object arg )
+    {
+        if ( isEnabled( Level.WARN, null ) )
+        {
+            log( Level.WARN, null, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void warn( String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.WARN, null ) )
+        {
+            log( Level.WARN, null, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void warn( String format, Object... arguments )
+    {
+        if ( isEnabled( Level.WARN, null ) )
+        {
+            log( Level.WARN, null, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void warn( String msg, Throwable t )
+    {
+        if ( isEnabled( Level.WARN, null ) )
+        {
+            log( Level.WARN, null, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isWarnEnabled( Marker marker )
+    {
+        return isEnabled( Level.WARN, marker );
+    }
+
+    @Override
+    public void warn( Marker marker, String msg )
+    {
+        if ( isEnabled( Level.WARN, marker ) )
+        {
+            log( Level.WARN, marker, msg, null, null );
+        }
+    }
+
+    @Override
+    public void warn( Marker marker, String format, Object arg )
+    {
+        if ( isEnabled( Level.WARN, marker ) )
+        {
+            log( Level.WARN, marker, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void warn( Marker marker, String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.WARN, marker ) )
+        {
+            log( Level.WARN, marker, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void warn( Marker marker, String format, Object... arguments )
+    {
+        if ( isEnabled( Level.WARN, marker ) )
+        {
+            log( Level.WARN, marker, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void warn( Marker marker, String msg, Throwable t )
+    {
+        if ( isEnabled( Level.WARN, marker ) )
+        {
+            log( Level.WARN, marker, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isErrorEnabled()
+    {
+        return isEnabled( Level.ERROR, null );
+    }
+
+    @Override
+    public void error( String msg )
+    {
+        if ( isEnabled( Level.ERROR, null ) )
+        {
+            log( Level.ERROR, null, msg, null, null );
+        }
+    }
+
+    @Override
+    public void error( String format, Object arg )
+    {
+        if ( isEnabled( Level.ERROR, null ) )
+        {
+            log( Level.ERROR, null, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void error( String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.ERROR, null ) )
+        {
+            log( Level.ERROR, null, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void error( String format, Object... arguments )
+    {
+        if ( isEnabled( Level.ERROR, null ) )
+        {
+            log( Level.ERROR, null, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void error( String msg, Throwable t )
+    {
+        if ( isEnabled( Level.ERROR, null ) )
+        {
+            log( Level.ERROR, null, msg, null, t );
+        }
+    }
+
+    @Override
+    public boolean isErrorEnabled( Marker marker )
+    {
+        return isEnabled( Level.ERROR, marker );
+    }
+
+    @Override
+    public void error( Marker marker, String msg )
+    {
+        if ( isEnabled( Level.ERROR, marker ) )
+        {
+            log( Level.ERROR, marker, msg, null, null );
+        }
+    }
+
+    @Override
+    public void error( Marker marker, String format, Object arg )
+    {
+        if ( isEnabled( Level.ERROR, marker ) )
+        {
+            log( Level.ERROR, marker, format, new Object[] { arg }, null );
+        }
+    }
+
+    @Override
+    public void error( Marker marker, String format, Object arg1, Object arg2 )
+    {
+        if ( isEnabled( Level.ERROR, marker ) )
+        {
+            log( Level.ERROR, marker, format, new Object[] { arg1, arg2 }, null );
+        }
+    }
+
+    @Override
+    public void error( Marker marker, String format, Object... arguments )
+    {
+        if ( isEnabled( Level.ERROR, marker ) )
+        {
+            log( Level.ERROR, marker, format, arguments, null );
+        }
+    }
+
+    @Override
+    public void error( Marker marker, String msg, Throwable t )
+    {
+        if ( isEnabled( Level.ERROR, marker ) )
+        {
+            log( Level.ERROR, marker, msg, null, t );
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.slf4j.event.Level;
+
+/**
+ * Encodes log records as single lines of JSON into a reusable buffer, writing the UTF-8 bytes directly: field names
+ * are encoded once, and so are the timestamp down to the second, the logger, thread and module names as long as they
+ * stay the same. Not thread safe, each thread uses its own, see {@link #get()}.
+ *
+ * @since 3.6.4
+ */
+final class JsonLogEncoder
+{
+    private static final int INITIAL_SIZE = 1024;
+
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final byte[] TIMESTAMP = ascii( "{\"timestamp\":\"" );
+
+    private static final byte[][] LEVELS = new byte[Level.values().length][];
+
+    private static final byte[] LOGGER = ascii( ",\"logger\":" );
+
+    private static final byte[] THREAD = ascii( ",\"thread\":" );
+
+    private static final byte[] MODULE = ascii( ",\"module\":" );
+
+    private static final byte[] MESSAGE = ascii( ",\"message\":" );
+
+    private static final byte[] EXCEPTION = ascii( ",\"exception\":[" );
+
+    private static final byte[] CLASS = ascii( "{\"class\":" );
+
+    private static final byte[] STACK_TRACE = ascii( ",\"stackTrace\":[" );
+
+    private static final byte[] NULL = ascii( "null" );
+
+    private static final byte[] NATIVE_METHOD = ascii( "(Native Method)" );
+
+    private static final byte[] UNKNOWN_SOURCE = ascii( "(Unknown Source" );
+
+    private static final byte[] HEX = ascii( "0123456789abcdef" );
+
+    /**
+     * The first char encoded in UTF-8 on more than one byte, and the lead byte of a continuation byte.
+     */
+    private static final int CONTINUATION = 0x80;
+
+    /**
+     * The first char encoded in UTF-8 on three bytes.
+     */
+    private static final int THREE_BYTES = 0x800;
+
+    private static final int TWO_BYTES_LEAD = 0xC0;
+
+    private static final int THREE_BYTES_LEAD = 0xE0;
+
+    private static final int FOUR_BYTES_LEAD = 0xF0;
+
+    private static final int CONTINUATION_BITS = 6;
+
+    private static final int CONTINUATION_MASK = ( 1 << CONTINUATION_BITS ) - 1;
+
+    private static final ThreadLocal<JsonLogEncoder> ENCODERS = new ThreadLocal<JsonLogEncoder>()
+    {
+        @Override
+        protected JsonLogEncoder initialValue()
+        {
+            return new JsonLogEncoder();
+        }
+    };
+
+    static
+    {
+        for ( Level level : Level.values() )
+        {
+            LEVELS[level.ordinal()] = ascii( "\",\"level\":\"" + level + '"' );
+        }
+    }
+
+    private final SimpleDateFormat seconds = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ss.", Locale.ENGLISH );
+
+    private byte[] buffer = new byte[INITIAL_SIZE];
+
+    private int length;
+
+    private long second = Long.MIN_VALUE;
+
+    private byte[] secondBytes;
+
+    private String thread;
+
+    private byte[] threadBytes;
+
+    private String module;
+
+    private byte[] moduleBytes;
+
+    private JsonLogEncoder()
+    {
+        seconds.setTimeZone( TimeZone.getTimeZone( "UTC" ) );
+    }
+
+    /**
+     * @return the encoder of the calling thread
+     */
+    static JsonLogEncoder get()
+    {
+        return ENCODERS.get();
+    }
+
+    /**
+     * @param value a string
+     * @return the string as a JSON string literal, quotes included, in UTF-8
+     */
+    static byte[] encodeString( String value )
+    {
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        encoder.string( value );
+        return Arrays.copyOf( encoder.buffer, encoder.length );
+    }
+
+    /**
+     * Encodes a record, replacing the previous one.
+     *
+     * @param millis the time of the record
+     * @param level the level
+     * @param logger the logger name, encoded with {@link #encodeString(String)}
+     * @param module the module, or {@code null}
+     * @param message the message
+     * @param throwable the throwable, or {@code null}
+     */
+    void encode( long millis, Level level, byte[] logger, String module, String message, Throwable throwable )
+    {
+        length = 0;
+        if ( buffer.length > MAX_RETAINED_SIZE )
+        {
+            // a huge record is not kept for the life of the thread
+            buffer = new byte[INITIAL_SIZE];
+        }
+        append( TIMESTAMP );
+        timestamp( millis );
+        append( LEVELS[level.ordinal()] );
+        append( LOGGER );
+        append( logger );
+        append( THREAD );
+        append( threadBytes() );
+        if ( module != null )
+        {
+            append( MODULE );
+            append( moduleBytes( module ) );
+        }
+        append( MESSAGE );
+        string( message );
+        if ( throwable != null )
+        {
+            append( EXCEPTION );
+            exception( throwable );
+            ensure( 1 );
+            buffer[length++] = ']';
+        }
+        ensure( 2 );
+        buffer[length++] = '}';
+        buffer[length++] = '\n';
+    }
+
+    /**
+     * Writes the last record, in one call.
+     *
+     * @param out the stream
+     * @throws IOException if the stream fails
+     */
+    void writeTo( OutputStream out )
+        throws IOException
+    {
+        out.write( buffer, 0, length );
+    }
+
+    private void timestamp( long millis )
+    {
+        long current = millis / 1000;
+        if ( current != second )
+        {
+            second = current;
+            secondBytes = ascii( seconds.format( new Date( current * 1000 ) ) );
+        }
+        append( secondBytes );
+        int fraction = (int) ( millis % 1000 );
+        ensure( 4 );
+        buffer[length++] = (byte) ( '0' + fraction / 100 );
+        buffer[length++] = (byte) ( '0' + fraction / 10 % 10 );
+        buffer[length++] = (byte) ( '0' + fraction % 10 );
+        buffer[length++] = 'Z';
+    }
+
+    private byte[] threadBytes()
+    {
+        String name = Thread.currentThread().getName();
+        if ( !name.equals( thread ) )
+        {
+            thread = name;
+            threadBytes = encodeString( name );
+        }
+        return threadBytes;
+    }
+
+    private byte[] moduleBytes( String name )
+    {
+        if ( !name.equals( module ) )
+        {
+            module = name;
+            moduleBytes = encodeString( name );
+        }
+        return moduleBytes;
+    }
+
+    /**
+     * The throwable and its causes, outermost first, as {@code CLIReportingUtils.showError} reports them.
+     */
+    private void exception( Throwable throwable )
+    {
+        int depth = 0;
+        for ( Throwable e = throwable; e != null && depth < 32; e = e.getCause() == e ? null : e.getCause(), depth++ )
+        {
+            if ( depth > 0 )
+            {
+                ensure( 1 );
+                buffer[length++] = ',';
+            }
+            append( CLASS );
+            string( e.getClass().getName() );
+            append( MESSAGE );
+            string( e.getMessage() );
+            append( STACK_TRACE );
+            StackTraceElement[] frames = e.getStackTrace();
+            for ( int i = 0; i < frames.length; i++ )
+            {
+                if ( i > 0 )
+                {
+                    ensure( 1 );
+                    buffer[length++] = ',';
+                }
+                frame( frames[i] );
+            }
+            ensure( 2 );
+            buffer[length++] = ']';
+            buffer[length++] = '}';
+        }
+    }
+
+    private void frame( StackTraceElement frame )
+    {
+        ensure( 1 );
+        buffer[length++] = '"';
+        chars( frame.getClassName() );
+        ensure( 1 );
+        buffer[length++] = '.';
+        chars( frame.getMethodName() );
+        if ( frame.isNativeMethod() )
+        {
+            append( NATIVE_METHOD );
+        }
+        else
+        {
+            if ( frame.getFileName() != null )
+            {
+                ensure( 1 );
+                buffer[length++] = '(';
+                chars( frame.getFileName() );
+            }
+            else
+            {
+                append( UNKNOWN_SOURCE );
+            }
+            if ( frame.getLineNumber() >= 0 )
+            {
+                ensure( 12 );
+                buffer[length++] = ':';
+                number( frame.getLineNumber() );
+            }
+            ensure( 1 );
+            buffer[length++] = ')';
+        }
+        ensure( 1 );
+        buffer[length++] = '"';
+    }
+
+    private void number( int value )
+    {
+        if ( value >= 10 )
+        {
+            number( value / 10 );
+        }
+        buffer[length++] = (byte) ( '0' + value % 10 );
+    }
+
+    private void string( String value )
+    {
+        if ( value == null )
+        {
+            append( NULL );
+            return;
+        }
+        ensure( 1 );
+        buffer[length++] = '"';
+        chars( value );
+        ensure( 1 );
+        buffer[length++] = '"';
+    }
+
+    /**
+     * The characters of a string literal, escaped and encoded in UTF-8.
+     */
+    private void chars( String value )
+    {
+        int count = value.length();
+        // at most 6 bytes per char, for \\u escapes
+        ensure( count * 6 );
+        byte[] b = buffer;
+        int n = length;
+        for ( int i = 0; i < count; i++ )
+        {
+            char c = value.charAt( i );
+            if ( c >= 0x20 && c < CONTINUATION )
+            {
+                if ( c == '"' || c == '\\' )
+                {
+                    b[n++] = '\\';
+                }
+                b[n++] = (byte) c;
+            }
+            else if ( c < 0x20 )
+            {
+                b[n++] = '\\';
+                switch ( c )
+                {
+                    case '\n':
+                        b[n++] = 'n';
+                        break;
+                    case '\r':
+                        b[n++] = 'r';
+                        break;
+                    case '\t':
+                        b[n++] = 't';
+                        break;
+                    default:
+                        b[n++] = 'u';
+                        b[n++] = '0';
+                        b[n++] = '0';
+                        b[n++] = HEX[c >> 4];
+                        b[n++] = HEX[c & 0xF];
+                        break;
+                }
+            }
+            else if ( c < THREE_BYTES )
+            {
+                b[n++] = (byte) ( TWO_BYTES_LEAD | c >> CONTINUATION_BITS );
+                b[n++] = (byte) ( CONTINUATION | c & CONTINUATION_MASK );
+            }
+            else if ( Character.isHighSurrogate( c ) && i + 1 < count
+                && Character.isLowSurrogate( value.charAt( i + 1 ) ) )
+            {
+                int codePoint = Character.toCodePoint( c, value.charAt( ++i ) );
+                b[n++] = (byte) ( FOUR_BYTES_LEAD | codePoint >> 3 * CONTINUATION_BITS );
+                b[n++] = (byte) ( CONTINUATION | codePoint >> 2 * CONTINUATION_BITS & CONTINUATION_MASK );
+                b[n++] = (byte) ( CONTINUATION | codePoint >> CONTINUATION_BITS & CONTINUATION_MASK );
+                b[n++] = (byte) ( CONTINUATION | codePoint & CONTINUATION_MASK );
+            }
+            else if ( Character.isSurrogate( c ) )
+            {
+                b[n++] = '?';
+            }
+            else
+            {
+                b[n++] = (byte) ( THREE_BYTES_LEAD | c >> 2 * CONTINUATION_BITS );
+                b[n++] = (byte) ( CONTINUATION | c >> CONTINUATION_BITS & CONTINUATION_MASK );
+                b[n++] = (byte) ( CONTINUATION | c & CONTINUATION_MASK );
+            }
+        }
+        length = n;
+    }
+
+    private void append( byte[] bytes )
+    {
+        ensure( bytes.length );
+        System.arraycopy( bytes, 0, buffer, length, bytes.length );
+        length += bytes.length;
+    }
+
+    private void ensure( int count )
+    {
+        if ( length + count > buffer.length )
+        {
+            buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, length + count ) );
+        }
+    }
+
+    private static byte[] ascii( String value )
+    {
+        return value.getBytes( StandardCharsets.US_ASCII );
+    }
+}
@@ -0,0 +1,163 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Wraps the loggers of the SLF4J binding so that each event they log is also written as a line of JSON, with the
+ * timestamp, level, logger, thread, module and message, and the exception chain if any, see {@link JsonLogEncoder}.
+ * Whether an event is logged is still decided by the binding. The text output of the binding is either kept, the
+ * JSON going to another stream, or replaced.
+ *
+ * @since 3.6.4
+ */
+public final class JsonLoggerFactory
+    implements ILoggerFactory
+{
+    private final ILoggerFactory delegate;
+
+    private final OutputStream out;
+
+    private final boolean text;
+
+    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the logger factory of the binding
+     * @param out the stream the JSON lines are written to
+     * @param text {@code true} to keep the text output of the binding, {@code false} to only write JSON
+     */
+    public JsonLoggerFactory( ILoggerFactory delegate, OutputStream out, boolean text )
+    {
+        this.delegate = delegate;
+        this.out = out;
+        this.text = text;
+    }
+
+    public ILoggerFactory getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public Logger getLogger( String name )
+    {
+        Logger logger = loggers.get( name );
+        if ( logger == null )
+        {
+            Logger created = new JsonLogger( delegate.getLogger( name ), name );
+            logger = loggers.putIfAbsent( name, created );
+            if ( logger == null )
+            {
+                logger = created;
+            }
+        }
+        return logger;
+    }
+
+    /**
+     * Logs an error with its whole exception chain as one record if the logger writes JSON, possibly through other
+     * forwarding loggers, whatever the text output shows of the exception.
+     *
+     * @param logger the logger
+     * @param message the message
+     * @param e the exception, or {@code null}
+     * @return the logger for the text output of the error, {@code null} if there is none
+     */
+    public static Logger logStructuredError( Logger logger, String message, Throwable e )
+    {
+        Logger unwrapped = logger;
+        while ( !( unwrapped instanceof JsonLogger ) )
+        {
+            if ( !( unwrapped instanceof ForwardingLogger ) )
+            {
+                return logger;
+            }
+            unwrapped = ( (ForwardingLogger) unwrapped ).getDelegate();
+        }
+        JsonLogger jsonLogger = (JsonLogger) unwrapped;
+        if ( jsonLogger.isErrorEnabled() )
+        {
+            jsonLogger.write( Level.ERROR, message, e );
+        }
+        return jsonLogger.getFactory().text ? jsonLogger.getDelegate() : null;
+    }
+
+    private final class JsonLogger
+        extends ForwardingLogger
+    {
+        private final byte[] name;
+
+        JsonLogger( Logger delegate, String name )
+        {
+            super( delegate );
+            this.name = JsonLogEncoder.encodeString( name );
+        }
+
+        JsonLoggerFactory getFactory()
+        {
+            return JsonLoggerFactory.this;
+        }
+
+        @Override
+        protected void log( Level level, Marker marker, String format, Object[] arguments, Throwable throwable )
+        {
+            if ( arguments != null )
+            {
+                FormattingTuple tuple = MessageFormatter.arrayFormat( format, arguments );
+                write( level, tuple.getMessage(), tuple.getThrowable() );
+            }
+            else
+            {
+                write( level, format, throwable );
+            }
+            if ( text )
+            {
+                super.log( level, marker, format, arguments, throwable );
+            }
+        }
+
+        void write( Level level, String message, Throwable throwable )
+        {
+            JsonLogEncoder encoder = JsonLogEncoder.get();
+            encoder.encode( System.currentTimeMillis(), level, name, ModuleOutput.getCurrentModule(), message,
+                            throwable );
+            try
+            {
+                encoder.writeTo( out );
+            }
+            catch ( IOException e )
+            {
+                // nowhere to log it, a LogFileSink reports it on the console
+            }
+        }
+    }
+}
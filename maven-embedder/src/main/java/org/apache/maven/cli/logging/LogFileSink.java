@@ -0,0 +1,507 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The file given with <code>-l</code>, written through a large buffer to a file channel. Its behavior is configured
+ * with system properties:
+ * <ul>
+ * <li><code>maven.logging.file.bufferSize</code>: the buffer size in bytes, 1 MiB by default,</li>
+ * <li><code>maven.logging.file.flush</code>: <code>buffer</code>, the default, writes the buffer when full and at
+ * most one second after a flush request, <code>always</code> on every flush request, like after each log line,</li>
+ * <li><code>maven.logging.file.fsync</code>: when to force the content to the storage device, <code>never</code> by
+ * default, on <code>close</code> or <code>always</code> after each write,</li>
+ * <li><code>maven.logging.file.maxSize</code>: the size, like <code>512m</code>, past which the file is rotated to
+ * <code>file.1</code>, <code>file.2</code>..., at the end of a line; unlimited by default,</li>
+ * <li><code>maven.logging.file.maxFiles</code>: the number of rotated files kept, 9 by default,</li>
+ * <li><code>maven.logging.file.compress</code>: <code>gzip</code> to compress on the fly, the files then getting a
+ * <code>.gz</code> extension, <code>none</code> by default.</li>
+ * </ul>
+ * The directory of the file is created if needed. As the file replaces the standard streams, write failures are
+ * reported once to the standard error stream in use when it was opened.
+ *
+ * @since 3.6.4
+ */
+public final class LogFileSink
+    extends OutputStream
+{
+    public static final String BUFFER_SIZE_PROPERTY = "maven.logging.file.bufferSize";
+
+    public static final String FLUSH_PROPERTY = "maven.logging.file.flush";
+
+    public static final String FSYNC_PROPERTY = "maven.logging.file.fsync";
+
+    public static final String MAX_SIZE_PROPERTY = "maven.logging.file.maxSize";
+
+    public static final String MAX_FILES_PROPERTY = "maven.logging.file.maxFiles";
+
+    public static final String COMPRESS_PROPERTY = "maven.logging.file.compress";
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int DEFAULT_MAX_FILES = 9;
+
+    private static final long FLUSH_DELAY = TimeUnit.SECONDS.toNanos( 1 );
+
+    /**
+     * When the buffer is written to the file, besides when it is full and on close.
+     */
+    public enum Flush
+    {
+        BUFFER, ALWAYS
+    }
+
+    /**
+     * When the file content is forced to the storage device.
+     */
+    public enum Fsync
+    {
+        NEVER, CLOSE, ALWAYS
+    }
+
+    private final File file;
+
+    private final Flush flush;
+
+    private final Fsync fsync;
+
+    private final long maxSize;
+
+    private final int maxFiles;
+
+    private final boolean gzip;
+
+    private final ByteBuffer buffer;
+
+    private final PrintStream console;
+
+    private final Thread shutdownHook;
+
+    private final Thread flusher;
+
+    private FileChannel channel;
+
+    private GZIPOutputStream compressor;
+
+    private long lastWrite = System.nanoTime();
+
+    private boolean flushRequested;
+
+    private boolean failed;
+
+    private boolean closed;
+
+    /**
+     * @param file the file, with <code>.gz</code> appended if compressed and not there yet
+     * @param bufferSize the buffer size in bytes
+     * @param flush when to write the buffer
+     * @param fsync when to force the content to the storage device
+     * @param maxSize the size past which the file is rotated, or <code>0</code> to never rotate it
+     * @param maxFiles the number of rotated files kept
+     * @param gzip <code>true</code> to compress the content
+     * @throws IOException if the file cannot be created
+     */
+    public LogFileSink( File file, int bufferSize, Flush flush, Fsync fsync, long maxSize, int maxFiles,
+                        boolean gzip )
+        throws IOException
+    {
+        this.file = gzip && !file.getName().endsWith( ".gz" ) ? new File( file.getPath() + ".gz" ) : file;
+        this.flush = flush;
+        this.fsync = fsync;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+        this.gzip = gzip;
+        // the compressor takes arrays
+        this.buffer = gzip ? ByteBuffer.allocate( bufferSize ) : ByteBuffer.allocateDirect( bufferSize );
+        this.console = System.err;
+
+        File directory = this.file.getAbsoluteFile().getParentFile();
+        if ( directory != null )
+        {
+            Files.createDirectories( directory.toPath() );
+        }
+        openFile();
+
+        shutdownHook = new Thread( new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                closeQuietly();
+            }
+        }, "maven-log-file-close" );
+        Runtime.getRuntime().addShutdownHook( shutdownHook );
+
+        if ( flush == Flush.BUFFER )
+        {
+            // writes what the flush requests of the last second left in the buffer
+            flusher = new Thread( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        while ( !Thread.currentThread().isInterrupted() )
+                        {
+                            TimeUnit.NANOSECONDS.sleep( FLUSH_DELAY );
+                            flushIfRequested();
+                        }
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        // closed
+                    }
+                }
+            }, "maven-log-file-flush" );
+            flusher.setDaemon( true );
+            flusher.start();
+        }
+        else
+        {
+            flusher = null;
+        }
+    }
+
+    /**
+     * @param file the file
+     * @return a sink configured by the system properties
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException if a property has an invalid value
+     */
+    public static LogFileSink open( File file )
+        throws IOException
+    {
+        String compress = System.getProperty( COMPRESS_PROPERTY, "none" );
+        if ( !"none".equals( compress ) && !"gzip".equals( compress ) )
+        {
+            throw new IllegalArgumentException( "Invalid " + COMPRESS_PROPERTY + " value [" + compress
+                + "]. Supported values are (none|gzip)." );
+        }
+
+        return new LogFileSink( file, Integer.getInteger( BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE ),
+                                parse( Flush.class, FLUSH_PROPERTY, Flush.BUFFER ),
+                                parse( Fsync.class, FSYNC_PROPERTY, Fsync.NEVER ),
+                                parseSize( System.getProperty( MAX_SIZE_PROPERTY, "0" ) ),
+                                Integer.getInteger( MAX_FILES_PROPERTY, DEFAULT_MAX_FILES ),
+                                "gzip".equals( compress ) );
+    }
+
+    private static <E extends Enum<E>> E parse( Class<E> type, String property, E defaultValue )
+    {
+        String value = System.getProperty( property );
+        if ( value == null )
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Enum.valueOf( type, value.trim().toUpperCase( Locale.ENGLISH ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new IllegalArgumentException( "Invalid " + property + " value [" + value + "]. Supported values are "
+                + Arrays.toString( type.getEnumConstants() ).toLowerCase( Locale.ENGLISH ) + "." );
+        }
+    }
+
+    static long parseSize( String value )
+    {
+        String size = value.trim().toLowerCase( Locale.ENGLISH );
+        long unit = 1;
+        if ( size.endsWith( "k" ) )
+        {
+            unit = 1024;
+        }
+        else if ( size.endsWith( "m" ) )
+        {
+            unit = 1024 * 1024;
+        }
+        else if ( size.endsWith( "g" ) )
+        {
+            unit = 1024 * 1024 * 1024;
+        }
+        try
+        {
+            return Long.parseLong( unit > 1 ? size.substring( 0, size.length() - 1 ) : size ) * unit;
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new IllegalArgumentException( "Invalid " + MAX_SIZE_PROPERTY + " value [" + value
+                + "]. Expected a number of bytes, optionally followed by k, m or g." );
+        }
+    }
+
+    /**
+     * @return the file currently written
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    @Override
+    public void write( int b )
+        throws IOException
+    {
+        write( new byte[] { (byte) b }, 0, 1 );
+    }
+
+    @Override
+    public synchronized void write( byte[] b, int off, int len )
+        throws IOException
+    {
+        if ( closed )
+        {
+            throw new IOException( "Log file closed: " + file );
+        }
+        try
+        {
+            int end = off + len;
+            while ( off < end )
+            {
+                int count = Math.min( end - off, buffer.remaining() );
+                buffer.put( b, off, count );
+                off += count;
+                if ( !buffer.hasRemaining() )
+                {
+                    writeBuffer();
+                }
+            }
+            // PrintStream writes line separators apart, so lines are never split across files
+            if ( maxSize > 0 && len > 0 && b[end - 1] == '\n' && channel.position() + buffer.position() >= maxSize )
+            {
+                rotate();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw fail( e );
+        }
+    }
+
+    @Override
+    public synchronized void flush()
+        throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        if ( flush == Flush.ALWAYS || System.nanoTime() - lastWrite > FLUSH_DELAY )
+        {
+            try
+            {
+                flushBuffer();
+            }
+            catch ( IOException e )
+            {
+                throw fail( e );
+            }
+        }
+        else
+        {
+            flushRequested = true;
+        }
+    }
+
+    private synchronized void flushIfRequested()
+    {
+        if ( flushRequested && !closed )
+        {
+            try
+            {
+                flushBuffer();
+            }
+            catch ( IOException e )
+            {
+                fail( e );
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        if ( flusher != null )
+        {
+            flusher.interrupt();
+        }
+        try
+        {
+            Runtime.getRuntime().removeShutdownHook( shutdownHook );
+        }
+        catch ( IllegalStateException e )
+        {
+            // shutting down, this may well be the hook
+        }
+        try
+        {
+            closeFile();
+        }
+        catch ( IOException e )
+        {
+            throw fail( e );
+        }
+    }
+
+    private void closeQuietly()
+    {
+        try
+        {
+            close();
+        }
+        catch ( IOException e )
+        {
+            // reported by fail
+        }
+    }
+
+    private IOException fail( IOException e )
+    {
+        if ( !failed )
+        {
+            failed = true;
+            console.println( "[ERROR] Unable to write the log file " + file + ": " + e.getMessage() );
+        }
+        return e;
+    }
+
+    private void openFile()
+        throws IOException
+    {
+        channel = FileChannel.open( file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING );
+        if ( gzip )
+        {
+            // sync flush, so a flush request makes the content so far readable
+            compressor = new GZIPOutputStream( Channels.newOutputStream( channel ), 64 * 1024, true );
+        }
+    }
+
+    private void flushBuffer()
+        throws IOException
+    {
+        writeBuffer();
+        if ( compressor != null )
+        {
+            compressor.flush();
+        }
+        flushRequested = false;
+    }
+
+    private void writeBuffer()
+        throws IOException
+    {
+        // through Buffer, the ByteBuffer overrides of Java 9+ do not exist on Java 7 and 8
+        ( (Buffer) buffer ).flip();
+        if ( compressor != null )
+        {
+            compressor.write( buffer.array(), 0, buffer.limit() );
+        }
+        else
+        {
+            while ( buffer.hasRemaining() )
+            {
+                channel.write( buffer );
+            }
+        }
+        ( (Buffer) buffer ).clear();
+        lastWrite = System.nanoTime();
+        if ( fsync == Fsync.ALWAYS )
+        {
+            channel.force( false );
+        }
+    }
+
+    private void closeFile()
+        throws IOException
+    {
+        try
+        {
+            writeBuffer();
+            if ( compressor != null )
+            {
+                compressor.finish();
+            }
+            if ( fsync != Fsync.NEVER )
+            {
+                channel.force( false );
+            }
+        }
+        finally
+        {
+            // closing the compressor closes the channel
+            channel.close();
+        }
+    }
+
+    private void rotate()
+        throws IOException
+    {
+        closeFile();
+
+        File last = rotated( maxFiles );
+        if ( maxFiles > 0 )
+        {
+            Files.deleteIfExists( last.toPath() );
+            for ( int i = maxFiles - 1; i > 0; i-- )
+            {
+                File rotated = rotated( i );
+                if ( rotated.exists() )
+                {
+                    Files.move( rotated.toPath(), rotated( i + 1 ).toPath(), StandardCopyOption.REPLACE_EXISTING );
+                }
+            }
+            Files.move( file.toPath(), rotated( 1 ).toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+
+        openFile();
+    }
+
+    private File rotated( int index )
+    {
+        String path = file.getPath();
+        return gzip ? new File( path.substring( 0, path.length() - 3 ) + '.' + index + ".gz" )
+                        : new File( path + '.' + index );
+    }
+}
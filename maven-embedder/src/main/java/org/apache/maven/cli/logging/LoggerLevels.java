@@ -0,0 +1,268 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Levels of logger categories, given with <code>-Dmaven.logging.level.<i>category</i>=<i>level</i></code> where the
+ * level is one of <code>debug</code>, <code>info</code>, <code>warn</code>, <code>error</code> or <code>off</code>.
+ * A category applies to the logger of that name and to the loggers below it, <code>org.apache.maven.plugins</code>
+ * covering <code>org.apache.maven.plugins.compiler.CompilerMojo</code> but not <code>org.apache.maven.pluginsX</code>,
+ * and the longest matching category wins.
+ * <p>
+ * The categories are compiled into an immutable character trie held in flat arrays, so a lookup walks the logger name
+ * once without allocating.
+ *
+ * @since 3.6.4
+ */
+public final class LoggerLevels
+{
+    public static final String PROPERTY_PREFIX = "maven.logging.level.";
+
+    /**
+     * Returned by {@link #getLevel(String)} for loggers outside all categories.
+     */
+    public static final int NONE = -1;
+
+    private static final LoggerLevels EMPTY = new LoggerLevels( Collections.<String, Integer>emptyMap() );
+
+    private final Map<String, Integer> categories;
+
+    /**
+     * The characters of the edges, the edge to node <code>n</code> being <code>labels[n]</code>.
+     */
+    private final char[] labels;
+
+    /**
+     * The children of node <code>n</code> are the nodes from <code>firstChild[n]</code> to
+     * <code>firstChild[n + 1]</code> excluded, sorted by label.
+     */
+    private final int[] firstChild;
+
+    /**
+     * The level of the category ending at node <code>n</code>, or {@link #NONE}.
+     */
+    private final int[] levels;
+
+    private LoggerLevels( Map<String, Integer> categories )
+    {
+        this.categories = Collections.unmodifiableMap( new TreeMap<>( categories ) );
+
+        // build a tree, then lay it out breadth first so the children of a node are contiguous
+        Node root = new Node( (char) 0 );
+        for ( Map.Entry<String, Integer> category : this.categories.entrySet() )
+        {
+            Node node = root;
+            for ( char c : category.getKey().toCharArray() )
+            {
+                node = node.child( c );
+            }
+            node.level = category.getValue();
+        }
+
+        int count = root.count();
+        labels = new char[count];
+        firstChild = new int[count + 1];
+        levels = new int[count];
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add( root );
+        int index = 0;
+        int next = 1;
+        while ( !queue.isEmpty() )
+        {
+            Node node = queue.remove();
+            labels[index] = node.label;
+            levels[index] = node.level;
+            firstChild[index] = next;
+            for ( Node child : node.children.values() )
+            {
+                queue.add( child );
+                next++;
+            }
+            index++;
+        }
+        firstChild[count] = next;
+    }
+
+    /**
+     * @return the levels of no category
+     */
+    public static LoggerLevels empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * @param categories the levels by category, as <code>Logger.LEVEL_*</code> constants
+     * @return the compiled levels
+     */
+    public static LoggerLevels of( Map<String, Integer> categories )
+    {
+        return categories.isEmpty() ? EMPTY : new LoggerLevels( categories );
+    }
+
+    /**
+     * @param properties the properties, typically the system ones
+     * @return the levels given by the <code>maven.logging.level.*</code> properties
+     * @throws IllegalArgumentException if a level is not supported
+     */
+    public static LoggerLevels fromProperties( Properties properties )
+    {
+        Map<String, Integer> categories = new TreeMap<>();
+        for ( String name : properties.stringPropertyNames() )
+        {
+            if ( name.startsWith( PROPERTY_PREFIX ) && name.length() > PROPERTY_PREFIX.length() )
+            {
+                categories.put( name.substring( PROPERTY_PREFIX.length() ),
+                                parseLevel( name, properties.getProperty( name ) ) );
+            }
+        }
+        return of( categories );
+    }
+
+    private static int parseLevel( String property, String value )
+    {
+        switch ( value.trim().toLowerCase( Locale.ENGLISH ) )
+        {
+            case "debug":
+                return Logger.LEVEL_DEBUG;
+            case "info":
+                return Logger.LEVEL_INFO;
+            case "warn":
+                return Logger.LEVEL_WARN;
+            case "error":
+                return Logger.LEVEL_ERROR;
+            case "off":
+                return Logger.LEVEL_DISABLED;
+            default:
+                throw new IllegalArgumentException( "Invalid " + property + " value [" + value
+                    + "]. Supported values are (debug|info|warn|error|off)." );
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return categories.isEmpty();
+    }
+
+    /**
+     * @return the levels by category, as <code>Logger.LEVEL_*</code> constants
+     */
+    public Map<String, Integer> getCategories()
+    {
+        return categories;
+    }
+
+    /**
+     * @param name the logger name
+     * @return the level of the longest category covering the logger, as a <code>Logger.LEVEL_*</code> constant, or
+     *         {@link #NONE}
+     */
+    public int getLevel( String name )
+    {
+        int level = NONE;
+        int node = 0;
+        int length = name.length();
+        for ( int i = 0; i < length; i++ )
+        {
+            char c = name.charAt( i );
+            if ( c == '.' && levels[node] != NONE )
+            {
+                level = levels[node];
+            }
+            node = find( node, c );
+            if ( node < 0 )
+            {
+                return level;
+            }
+        }
+        return levels[node] != NONE ? levels[node] : level;
+    }
+
+    private int find( int node, char c )
+    {
+        int from = firstChild[node];
+        int to = firstChild[node + 1];
+        if ( to - from < 8 )
+        {
+            for ( int child = from; child < to; child++ )
+            {
+                if ( labels[child] == c )
+                {
+                    return child;
+                }
+            }
+            return -1;
+        }
+        int child = Arrays.binarySearch( labels, from, to, c );
+        return child >= 0 ? child : -1;
+    }
+
+    @Override
+    public String toString()
+    {
+        return categories.toString();
+    }
+
+    private static final class Node
+    {
+        final char label;
+
+        final Map<Character, Node> children = new TreeMap<>();
+
+        int level = NONE;
+
+        Node( char label )
+        {
+            this.label = label;
+        }
+
+        Node child( char c )
+        {
+            Node child = children.get( c );
+            if ( child == null )
+            {
+                child = new Node( c );
+                children.put( c, child );
+            }
+            return child;
+        }
+
+        int count()
+        {
+            int count = 1;
+            for ( Node child : children.values() )
+            {
+                count += child.count();
+            }
+            return count;
+        }
+    }
+}
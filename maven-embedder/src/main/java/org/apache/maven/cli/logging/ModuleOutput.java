@@ -0,0 +1,495 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Grouped standard output for parallel builds: what the threads of a module print is kept in a buffer of that module
+ * and printed as one block when the module ends, so the output of concurrent modules does not interleave. The module
+ * started first among the running ones has the focus: its output is streamed as it comes, and when it ends the next
+ * one gets the focus, printing what it buffered so far. Output of threads outside any module is printed as it comes.
+ * <p>
+ * Buffers live in memory up to <code>-Dmaven.logging.grouped.spillSize</code> bytes, 1 MiB by default, and then
+ * continue in a temporary file. Modules are delimited by {@link #begin(String)} and {@link #end(String)}, called on a
+ * thread of the module, which its child threads inherit, or by running the work of the module with
+ * {@link #call(String, Callable)}. {@link #uninstall()} puts the standard streams back at the end of the build.
+ * Enabled with <code>-Dmaven.logging.grouped=true</code>, in place of {@link AsyncOutput} if both are requested.
+ *
+ * @since 3.6.4
+ */
+public final class ModuleOutput
+{
+    public static final String ENABLED_PROPERTY = "maven.logging.grouped";
+
+    public static final String SPILL_SIZE_PROPERTY = "maven.logging.grouped.spillSize";
+
+    private static final int DEFAULT_SPILL_SIZE = 1024 * 1024;
+
+    private static final InheritableThreadLocal<Buffer> CURRENT = new InheritableThreadLocal<>();
+
+    private static final InheritableThreadLocal<String> MODULE = new InheritableThreadLocal<>();
+
+    private static ModuleOutput instance;
+
+    private final PrintStream out;
+
+    private final PrintStream err;
+
+    private final int spillSize;
+
+    /**
+     * The lock of the console, taken after the lock of a buffer when both are needed.
+     */
+    private final Object console = new Object();
+
+    /**
+     * The running modules, in start order, the first one having the focus.
+     */
+    private final Map<String, Buffer> modules = new LinkedHashMap<>();
+
+    private ModuleOutput( PrintStream out, PrintStream err, int spillSize )
+    {
+        this.out = out;
+        this.err = err;
+        this.spillSize = spillSize;
+    }
+
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean( ENABLED_PROPERTY );
+    }
+
+    /**
+     * Replaces the standard streams by grouping ones writing to the current ones, unless already done.
+     */
+    public static synchronized void install()
+    {
+        if ( !( System.out instanceof Stream ) )
+        {
+            instance = new ModuleOutput( System.out, System.err,
+                                         Integer.getInteger( SPILL_SIZE_PROPERTY, DEFAULT_SPILL_SIZE ) );
+            System.setOut( instance.new Stream( instance.out ) );
+            System.setErr( instance.new Stream( instance.err ) );
+        }
+    }
+
+    /**
+     * Puts back the standard streams replaced by {@link #install()}, unless they were replaced again since. Output of
+     * modules not ended yet is printed first.
+     */
+    public static void uninstall()
+    {
+        endAll();
+        synchronized ( ModuleOutput.class )
+        {
+            if ( instance != null )
+            {
+                if ( System.out instanceof Stream )
+                {
+                    System.setOut( instance.out );
+                }
+                if ( System.err instanceof Stream )
+                {
+                    System.setErr( instance.err );
+                }
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the standard streams were replaced by grouping ones
+     */
+    public static synchronized boolean isInstalled()
+    {
+        return instance != null;
+    }
+
+    private static synchronized ModuleOutput getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * @return the module of the calling thread, whether its output is grouped or not, or {@code null} outside modules
+     */
+    public static String getCurrentModule()
+    {
+        return MODULE.get();
+    }
+
+    /**
+     * Starts buffering the output of the calling thread, and of the threads it starts, for the given module.
+     *
+     * @param module the module identifier
+     */
+    public static void begin( String module )
+    {
+        MODULE.set( module );
+        ModuleOutput output = getInstance();
+        if ( output != null )
+        {
+            CURRENT.set( output.start( module ) );
+        }
+    }
+
+    /**
+     * Prints the output of the given module as one block, unless it was streamed, and stops buffering it.
+     *
+     * @param module the module identifier
+     */
+    public static void end( String module )
+    {
+        MODULE.remove();
+        CURRENT.remove();
+        ModuleOutput output = getInstance();
+        if ( output != null )
+        {
+            output.finish( module );
+        }
+    }
+
+    /**
+     * Runs the work of a module on the calling thread, between {@link #begin(String)} and {@link #end(String)}.
+     *
+     * @param module the module identifier
+     * @param task the work of the module
+     * @param <T> the type of the result
+     * @return the result of the task
+     * @throws Exception if the task fails
+     */
+    public static <T> T call( String module, Callable<T> task )
+        throws Exception
+    {
+        begin( module );
+        try
+        {
+            return task.call();
+        }
+        finally
+        {
+            end( module );
+        }
+    }
+
+    /**
+     * Prints the output of all modules not ended yet, in start order, for instance when the build is interrupted.
+     */
+    public static void endAll()
+    {
+        MODULE.remove();
+        CURRENT.remove();
+        ModuleOutput output = getInstance();
+        if ( output != null )
+        {
+            List<String> running;
+            synchronized ( output.modules )
+            {
+                running = new ArrayList<>( output.modules.keySet() );
+            }
+            for ( String module : running )
+            {
+                output.finish( module );
+            }
+        }
+    }
+
+    private Buffer start( String module )
+    {
+        synchronized ( modules )
+        {
+            Buffer buffer = modules.get( module );
+            if ( buffer == null )
+            {
+                buffer = new Buffer( module );
+                // the first module streams from the start
+                buffer.streaming = modules.isEmpty();
+                modules.put( module, buffer );
+            }
+            return buffer;
+        }
+    }
+
+    private void finish( String module )
+    {
+        Buffer buffer;
+        Buffer focus = null;
+        synchronized ( modules )
+        {
+            buffer = modules.remove( module );
+            if ( buffer == null )
+            {
+                return;
+            }
+            if ( buffer.streaming && !modules.isEmpty() )
+            {
+                focus = modules.values().iterator().next();
+            }
+        }
+
+        buffer.printAndStream();
+        if ( focus != null )
+        {
+            focus.printAndStream();
+        }
+    }
+
+    private void printNow( PrintedText text )
+    {
+        synchronized ( console )
+        {
+            text.writeTo();
+            text.target.flush();
+        }
+    }
+
+    /**
+     * The output of one module, in memory then in a file past the spill size. Only the threads of the module contend
+     * on its lock, the console lock is taken when it is printed.
+     */
+    private final class Buffer
+    {
+        private final String module;
+
+        private final List<PrintedText> texts = new ArrayList<>();
+
+        private int size;
+
+        private File spillFile;
+
+        private DataOutputStream spill;
+
+        boolean streaming;
+
+        Buffer( String module )
+        {
+            this.module = module;
+        }
+
+        synchronized void add( PrintedText text )
+        {
+            if ( streaming )
+            {
+                printNow( text );
+                return;
+            }
+
+            if ( spill == null && size + text.size() > spillSize )
+            {
+                startSpilling();
+            }
+            if ( spill != null )
+            {
+                try
+                {
+                    write( text );
+                    return;
+                }
+                catch ( IOException e )
+                {
+                    // keep it in memory rather than losing it
+                    closeSpill();
+                }
+            }
+            texts.add( text );
+            size += text.size();
+        }
+
+        /**
+         * Prints what was buffered as one block, then prints further output as it comes.
+         */
+        synchronized void printAndStream()
+        {
+            if ( streaming )
+            {
+                return;
+            }
+            synchronized ( console )
+            {
+                if ( spillFile != null )
+                {
+                    closeSpill();
+                    printSpill();
+                }
+                PrintStream current = null;
+                for ( PrintedText text : texts )
+                {
+                    if ( current != null && current != text.target )
+                    {
+                        current.flush();
+                    }
+                    text.writeTo();
+                    current = text.target;
+                }
+                out.flush();
+                err.flush();
+            }
+            texts.clear();
+            size = 0;
+            streaming = true;
+        }
+
+        private void startSpilling()
+        {
+            try
+            {
+                spillFile = File.createTempFile( "maven-output-", ".bin" );
+                spillFile.deleteOnExit();
+                spill = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( spillFile.toPath() ) ) );
+                // what is in memory is older: move it to the file to keep the order
+                for ( PrintedText text : texts )
+                {
+                    write( text );
+                }
+                texts.clear();
+                size = 0;
+            }
+            catch ( IOException e )
+            {
+                closeSpill();
+            }
+        }
+
+        private void write( PrintedText text )
+            throws IOException
+        {
+            spill.writeBoolean( text.target == err );
+            if ( text.bytes != null )
+            {
+                spill.writeByte( 0 );
+                spill.writeInt( text.bytes.length );
+                spill.write( text.bytes );
+            }
+            else
+            {
+                byte[] bytes = text.text.getBytes( StandardCharsets.UTF_8 );
+                spill.writeByte( text.newLine ? 2 : 1 );
+                spill.writeInt( bytes.length );
+                spill.write( bytes );
+            }
+        }
+
+        private void closeSpill()
+        {
+            if ( spill != null )
+            {
+                try
+                {
+                    spill.close();
+                }
+                catch ( IOException e )
+                {
+                    // what could not be written is reported as missing when printing
+                }
+                spill = null;
+            }
+        }
+
+        private void printSpill()
+        {
+            try ( DataInputStream in =
+                new DataInputStream( new BufferedInputStream( Files.newInputStream( spillFile.toPath() ) ) ) )
+            {
+                while ( true )
+                {
+                    PrintStream target;
+                    try
+                    {
+                        target = in.readBoolean() ? err : out;
+                    }
+                    catch ( EOFException e )
+                    {
+                        break;
+                    }
+                    int kind = in.readByte();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully( bytes );
+                    if ( kind == 0 )
+                    {
+                        target.write( bytes, 0, bytes.length );
+                    }
+                    else
+                    {
+                        new PrintedText( target, new String( bytes, StandardCharsets.UTF_8 ), kind == 2 ).writeTo();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                err.println( "[WARNING] Output of " + module + " partially lost: " + e.getMessage() );
+            }
+            finally
+            {
+                if ( !spillFile.delete() )
+                {
+                    spillFile.deleteOnExit();
+                }
+                spillFile = null;
+            }
+        }
+    }
+
+    /**
+     * The grouping replacement of a standard stream.
+     */
+    private final class Stream
+        extends PrintedTextStream
+    {
+        Stream( PrintStream target )
+        {
+            super( target );
+        }
+
+        @Override
+        void publish( PrintedText text )
+        {
+            Buffer buffer = CURRENT.get();
+            if ( buffer != null )
+            {
+                buffer.add( text );
+            }
+            else
+            {
+                printNow( text );
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+            // buffers are flushed when printed
+        }
+    }
+}
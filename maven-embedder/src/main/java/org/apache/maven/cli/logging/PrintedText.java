@@ -0,0 +1,101 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+
+/**
+ * What one print call on a {@link PrintedTextStream} produced: text, printed as is or as a line, or bytes.
+ *
+ * @since 3.6.4
+ */
+final class PrintedText
+{
+    final PrintStream target;
+
+    final String text;
+
+    final boolean newLine;
+
+    final byte[] bytes;
+
+    PrintedText( PrintStream target, String text, boolean newLine )
+    {
+        this.target = target;
+        this.text = text;
+        this.newLine = newLine;
+        this.bytes = null;
+    }
+
+    PrintedText( PrintStream target, byte[] bytes )
+    {
+        this.target = target;
+        this.text = null;
+        this.newLine = false;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return {@code true} if this is a <code>[DEBUG]</code> line, colored or not
+     */
+    boolean isDebug()
+    {
+        if ( text == null || !text.startsWith( "[" ) )
+        {
+            return false;
+        }
+        int start = 1;
+        if ( text.startsWith( "\u001B[", start ) )
+        {
+            // colored level
+            start = text.indexOf( 'm', start ) + 1;
+        }
+        return start > 0 && text.startsWith( "DEBUG", start );
+    }
+
+    /**
+     * @return the approximate memory size of the content
+     */
+    int size()
+    {
+        return bytes != null ? bytes.length : text.length() + ( newLine ? 1 : 0 );
+    }
+
+    void writeTo( PrintStream stream )
+    {
+        if ( bytes != null )
+        {
+            stream.write( bytes, 0, bytes.length );
+        }
+        else if ( newLine )
+        {
+            stream.println( text );
+        }
+        else
+        {
+            stream.print( text );
+        }
+    }
+
+    void writeTo()
+    {
+        writeTo( target );
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+
+/**
+ * A replacement of a standard stream handing each print call over as a {@link PrintedText}, without taking the lock
+ * of the stream nor encoding text. Print calls this class does not override end up in {@link #write(byte[], int,
+ * int)} through the encoder of {@link PrintStream}.
+ *
+ * @since 3.6.4
+ */
+abstract class PrintedTextStream
+    extends PrintStream
+{
+    final PrintStream target;
+
+    PrintedTextStream( PrintStream target )
+    {
+        super( target, false );
+        this.target = target;
+    }
+
+    /**
+     * @param text what was printed, its target being the stream this one replaces
+     */
+    abstract void publish( PrintedText text );
+
+    @Override
+    public void print( String s )
+    {
+        publish( new PrintedText( target, String.valueOf( s ), false ) );
+    }
+
+    @Override
+    public void print( Object obj )
+    {
+        print( String.valueOf( obj ) );
+    }
+
+    @Override
+    public void print( char[] s )
+    {
+        print( new String( s ) );
+    }
+
+    @Override
+    public void println()
+    {
+        println( "" );
+    }
+
+    @Override
+    public void println( String x )
+    {
+        publish( new PrintedText( target, String.valueOf( x ), true ) );
+    }
+
+    @Override
+    public void println( Object x )
+    {
+        println( String.valueOf( x ) );
+    }
+
+    @Override
+    public void println( char[] x )
+    {
+        println( new String( x ) );
+    }
+
+    @Override
+    public void write( int b )
+    {
+        publish( new PrintedText( target, new byte[] { (byte) b } ) );
+    }
+
+    @Override
+    public void write( byte[] buf, int off, int len )
+    {
+        byte[] bytes = new byte[len];
+        System.arraycopy( buf, off, bytes, 0, len );
+        publish( new PrintedText( target, bytes ) );
+    }
+
+    @Override
+    public boolean checkError()
+    {
+        return target.checkError();
+    }
+}
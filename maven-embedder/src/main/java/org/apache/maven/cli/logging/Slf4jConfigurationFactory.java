@@ -20,6 +20,9 @@
  */
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.net.URL;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
@@ -27,6 +30,7 @@
 import java.util.Properties;
 import java.util.Set;
 
+import org.apache.maven.cli.internal.StartupManifest;
 import org.apache.maven.cli.logging.impl.UnsupportedSlf4jBindingConfiguration;
 import org.codehaus.plexus.util.PropertyUtils;
 import org.slf4j.ILoggerFactory;
@@ -34,7 +38,11 @@
 /**
  * Slf4jConfiguration factory, loading implementations from <code>META-INF/maven/slf4j-configuration.properties</code>
  * configuration files in class loader: key is the class name of the ILoggerFactory, value is the class name of
- * the corresponding Slf4jConfiguration.
+ * the corresponding Slf4jConfiguration. The {@link StartupManifest} of the distribution, when up to date, is used
+ * instead of the configuration files, which are otherwise read once.
+ * <p>
+ * The configuration of an ILoggerFactory class is created once and shared by later calls, such as the builds of an
+ * embedder or of the daemon: implementations must be stateless.
  *
  * @author Hervé Boutemy
  * @since 3.1.0
@@ -43,37 +51,99 @@
 {
     public static final String RESOURCE = "META-INF/maven/slf4j-configuration.properties";
 
-    public static Slf4jConfiguration getConfiguration( ILoggerFactory loggerFactory )
+    private static final MethodType DEFAULT_CONSTRUCTOR = MethodType.methodType( void.class );
+
+    private static final ClassValue<Slf4jConfiguration> CONFIGURATIONS = new ClassValue<Slf4jConfiguration>()
     {
-        Map<URL, Set<Object>> supported = new LinkedHashMap<>();
+        @Override
+        protected Slf4jConfiguration computeValue( Class<?> loggerFactoryClass )
+        {
+            return newConfiguration( loggerFactoryClass.getCanonicalName() );
+        }
+    };
 
-        String slf4jBinding = loggerFactory.getClass().getCanonicalName();
+    private static volatile Bindings bindings;
+
+    public static Slf4jConfiguration getConfiguration( ILoggerFactory loggerFactory )
+    {
+        return CONFIGURATIONS.get( loggerFactory.getClass() );
+    }
 
-        try
+    private static Slf4jConfiguration newConfiguration( String slf4jBinding )
+    {
+        StartupManifest manifest = StartupManifest.getInstance();
+        String impl = manifest != null ? manifest.getSlf4jConfiguration( slf4jBinding ) : null;
+        if ( impl == null )
         {
-            Enumeration<URL> resources = Slf4jConfigurationFactory.class.getClassLoader().getResources( RESOURCE );
+            impl = getBindings().configurations.get( slf4jBinding );
+        }
 
-            while ( resources.hasMoreElements() )
+        if ( impl != null )
+        {
+            try
+            {
+                MethodHandle constructor =
+                    MethodHandles.publicLookup().findConstructor( Class.forName( impl ), DEFAULT_CONSTRUCTOR );
+                return (Slf4jConfiguration) constructor.invokeWithArguments();
+            }
+            catch ( Error e )
+            {
+                throw e;
+            }
+            catch ( Throwable e )
             {
-                URL resource = resources.nextElement();
+                e.printStackTrace();
+            }
+        }
 
-                Properties conf = PropertyUtils.loadProperties( resource.openStream() );
+        return new UnsupportedSlf4jBindingConfiguration( slf4jBinding, getBindings().supported );
+    }
 
-                String impl = conf.getProperty( slf4jBinding );
+    private static Bindings getBindings()
+    {
+        Bindings result = bindings;
+        if ( result == null )
+        {
+            result = new Bindings();
+            try
+            {
+                Enumeration<URL> resources =
+                    Slf4jConfigurationFactory.class.getClassLoader().getResources( RESOURCE );
 
-                if ( impl != null )
+                while ( resources.hasMoreElements() )
                 {
-                    return (Slf4jConfiguration) Class.forName( impl ).newInstance();
-                }
+                    URL resource = resources.nextElement();
+
+                    Properties conf = PropertyUtils.loadProperties( resource.openStream() );
+
+                    for ( String binding : conf.stringPropertyNames() )
+                    {
+                        // first declaration wins
+                        if ( !result.configurations.containsKey( binding ) )
+                        {
+                            result.configurations.put( binding, conf.getProperty( binding ) );
+                        }
+                    }
 
-                supported.put( resource, conf.keySet() );
+                    result.supported.put( resource, conf.keySet() );
+                }
             }
+            catch ( IOException e )
+            {
+                e.printStackTrace();
+            }
+            bindings = result;
         }
-        catch ( IOException | ClassNotFoundException | IllegalAccessException | InstantiationException e )
-        {
-            e.printStackTrace();
-        }
+        return result;
+    }
+
+    /**
+     * The content of the configuration files of the class loader.
+     */
+    private static final class Bindings
+    {
+        final Map<String, String> configurations = new LinkedHashMap<>();
 
-        return new UnsupportedSlf4jBindingConfiguration( slf4jBinding, supported );
+        final Map<URL, Set<Object>> supported = new LinkedHashMap<>();
     }
 }
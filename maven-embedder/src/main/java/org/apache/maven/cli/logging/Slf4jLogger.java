@@ -24,6 +24,10 @@
 /**
  * Adapt an SLF4J logger to a Plexus logger, ignoring Plexus logger API parts that are not classical and
  * probably not really used.
+ * <p>
+ * The levels enabled by the SLF4J logger are checked once and kept until {@link #invalidateLevels()} is called,
+ * which must be done whenever the levels of the SLF4J binding change. The Plexus threshold and the level of the
+ * logger category, see {@link #setLevels(LoggerLevels)}, further restrict them.
  *
  * @author Jason van Zyl
  * @since 3.1.0
@@ -31,102 +35,245 @@
 public class Slf4jLogger
     implements Logger
 {
+    private static final int VALID = 1 << 7;
+
+    /**
+     * The position of the epoch in {@link #levels}, above {@link #VALID}.
+     */
+    private static final int EPOCH_SHIFT = 8;
+
+    /**
+     * The bits of the epoch that fit in {@link #levels}.
+     */
+    private static final int EPOCH_MASK = -1 >>> EPOCH_SHIFT;
+
+    private static volatile int epoch;
+
+    private static volatile LoggerLevels categoryLevels = LoggerLevels.empty();
 
     private org.slf4j.Logger logger;
 
+    private final boolean cacheLevels;
+
+    private volatile int threshold = LEVEL_DEBUG;
+
+    /**
+     * The epoch in the upper bits, {@link #VALID} and the bits of the enabled levels in the lower ones, in a single
+     * field so they are always read consistently.
+     */
+    private int levels;
+
     public Slf4jLogger( org.slf4j.Logger logger )
+    {
+        this( logger, true );
+    }
+
+    /**
+     * @param logger the SLF4J logger
+     * @param cacheLevels <code>false</code> if the levels the SLF4J logger enables depend on the calling thread
+     * @since 3.6.4
+     */
+    public Slf4jLogger( org.slf4j.Logger logger, boolean cacheLevels )
     {
         this.logger = logger;
+        this.cacheLevels = cacheLevels;
+    }
+
+    /**
+     * Makes all loggers check their levels again on next use.
+     *
+     * @since 3.6.4
+     */
+    public static void invalidateLevels()
+    {
+        synchronized ( Slf4jLogger.class )
+        {
+            epoch++;
+        }
+    }
+
+    /**
+     * Sets the levels of logger categories, applied by all loggers from now on. The SLF4J binding has to enable the
+     * levels of the categories for them to take effect, see
+     * {@link BaseSlf4jConfiguration#setLoggerLevel(String, int)}.
+     *
+     * @param levels the levels
+     * @since 3.6.4
+     */
+    public static void setLevels( LoggerLevels levels )
+    {
+        synchronized ( Slf4jLogger.class )
+        {
+            categoryLevels = levels;
+            epoch++;
+        }
+    }
+
+    /**
+     * @return the levels of logger categories
+     * @since 3.6.4
+     */
+    public static LoggerLevels getLevels()
+    {
+        return categoryLevels;
+    }
+
+    private boolean isEnabled( int level )
+    {
+        int current = epoch;
+        int cached = levels;
+        if ( ( cached >>> EPOCH_SHIFT ) != ( current & EPOCH_MASK ) || ( cached & VALID ) == 0 || !cacheLevels )
+        {
+            int enabled = VALID;
+            int plexusThreshold = threshold;
+            int min = plexusThreshold;
+            LoggerLevels categories = categoryLevels;
+            if ( !categories.isEmpty() )
+            {
+                min = Math.max( min, categories.getLevel( logger.getName() ) );
+            }
+            enabled |= min <= LEVEL_DEBUG && logger.isDebugEnabled() ? 1 << LEVEL_DEBUG : 0;
+            enabled |= min <= LEVEL_INFO && logger.isInfoEnabled() ? 1 << LEVEL_INFO : 0;
+            enabled |= min <= LEVEL_WARN && logger.isWarnEnabled() ? 1 << LEVEL_WARN : 0;
+            enabled |= min <= LEVEL_ERROR && logger.isErrorEnabled() ? 1 << LEVEL_ERROR : 0;
+            enabled |= min <= LEVEL_FATAL && logger.isErrorEnabled() ? 1 << LEVEL_FATAL : 0;
+            cached = ( current << EPOCH_SHIFT ) | enabled;
+            if ( plexusThreshold == threshold && cacheLevels )
+            {
+                levels = cached;
+            }
+        }
+        return ( cached & ( 1 << level ) ) != 0;
     }
 
     public void debug( String message )
     {
-        logger.debug( message );
+        if ( isEnabled( LEVEL_DEBUG ) )
+        {
+            logger.debug( message );
+        }
     }
 
     public void debug( String message, Throwable throwable )
     {
-        logger.debug( message, throwable );
+        if ( isEnabled( LEVEL_DEBUG ) )
+        {
+            logger.debug( message, throwable );
+        }
     }
 
     public boolean isDebugEnabled()
     {
-        return logger.isDebugEnabled();
+        return isEnabled( LEVEL_DEBUG );
     }
 
     public void info( String message )
     {
-        logger.info( message );
+        if ( isEnabled( LEVEL_INFO ) )
+        {
+            logger.info( message );
+        }
     }
 
     public void info( String message, Throwable throwable )
     {
-        logger.info( message, throwable );
+        if ( isEnabled( LEVEL_INFO ) )
+        {
+            logger.info( message, throwable );
+        }
     }
 
     public boolean isInfoEnabled()
     {
-        return logger.isInfoEnabled();
+        return isEnabled( LEVEL_INFO );
     }
 
     public void warn( String message )
     {
-        logger.warn( message );
+        if ( isEnabled( LEVEL_WARN ) )
+        {
+            logger.warn( message );
+        }
     }
 
     public void warn( String message, Throwable throwable )
     {
-        logger.warn( message, throwable );
+        if ( isEnabled( LEVEL_WARN ) )
+        {
+            logger.warn( message, throwable );
+        }
     }
 
     public boolean isWarnEnabled()
     {
-        return logger.isWarnEnabled();
+        return isEnabled( LEVEL_WARN );
     }
 
     public void error( String message )
     {
-        logger.error( message );
+        if ( isEnabled( LEVEL_ERROR ) )
+        {
+            logger.error( message );
+        }
     }
 
     public void error( String message, Throwable throwable )
     {
-        logger.error( message, throwable );
+        if ( isEnabled( LEVEL_ERROR ) )
+        {
+            logger.error( message, throwable );
+        }
     }
 
     public boolean isErrorEnabled()
     {
-        return logger.isErrorEnabled();
+        return isEnabled( LEVEL_ERROR );
     }
 
     public void fatalError( String message )
     {
-        logger.error( message );
+        if ( isEnabled( LEVEL_FATAL ) )
+        {
+            logger.error( message );
+        }
     }
 
     public void fatalError( String message, Throwable throwable )
     {
-        logger.error( message, throwable );
+        if ( isEnabled( LEVEL_FATAL ) )
+        {
+            logger.error( message, throwable );
+        }
     }
 
     public boolean isFatalErrorEnabled()
     {
-        return logger.isErrorEnabled();
+        return isEnabled( LEVEL_FATAL );
     }
 
     /**
-     * <b>Warning</b>: ignored (always return <code>0 == Logger.LEVEL_DEBUG</code>).
+     * @return the lowest level enabled by both the Plexus threshold and the SLF4J logger, or
+     *         <code>Logger.LEVEL_DISABLED</code> if none is
      */
     public int getThreshold()
     {
-        return 0;
+        for ( int level = LEVEL_DEBUG; level <= LEVEL_FATAL; level++ )
+        {
+            if ( isEnabled( level ) )
+            {
+                return level;
+            }
+        }
+        return LEVEL_DISABLED;
     }
 
     /**
-     * <b>Warning</b>: ignored.
+     * @param threshold the Plexus level below which messages are discarded, whatever the SLF4J logger enables
      */
     public void setThreshold( int threshold )
     {
+        this.threshold = threshold;
+        levels = 0;
     }
 
     /**
@@ -19,6 +19,10 @@
  * under the License.
  */
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.logging.LoggerManager;
 import org.slf4j.ILoggerFactory;
@@ -28,6 +32,9 @@
  * Use an SLF4J {@link org.slf4j.ILoggerFactory} as a backing for a Plexus
  * {@link org.codehaus.plexus.logging.LoggerManager},
  * ignoring Plexus logger API parts that are not classical and probably not really used.
+ * <p>
+ * The logger of a component is created once and returned again until given back with
+ * {@link #returnComponentLogger(String, String)}; looking it up allocates nothing.
  *
  * @author Jason van Zyl
  * @since 3.1
@@ -38,14 +45,42 @@
 
     private ILoggerFactory loggerFactory;
 
+    private final ConcurrentMap<String, RoleLoggers> loggers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeLoggerCount = new AtomicInteger();
+
+    private final boolean cacheLevels;
+
+    private volatile int threshold = Logger.LEVEL_DEBUG;
+
     public Slf4jLoggerManager()
     {
-        loggerFactory = LoggerFactory.getILoggerFactory();
+        this( LoggerFactory.getILoggerFactory() );
+    }
+
+    /**
+     * @param loggerFactory the logger factory backing the Plexus loggers
+     * @since 3.6.4
+     */
+    public Slf4jLoggerManager( ILoggerFactory loggerFactory )
+    {
+        this( loggerFactory, true );
+    }
+
+    /**
+     * @param loggerFactory the logger factory backing the Plexus loggers
+     * @param cacheLevels <code>false</code> if the levels its loggers enable depend on the calling thread
+     * @since 3.6.4
+     */
+    public Slf4jLoggerManager( ILoggerFactory loggerFactory, boolean cacheLevels )
+    {
+        this.loggerFactory = loggerFactory;
+        this.cacheLevels = cacheLevels;
     }
 
     public Logger getLoggerForComponent( String role )
     {
-        return new Slf4jLogger( loggerFactory.getLogger( role ) );
+        return getLoggerForComponent( role, null );
     }
 
     /**
@@ -55,57 +90,149 @@ public Logger getLoggerForComponent( String role )
      */
     public Logger getLoggerForComponent( String role, String hint )
     {
-        return ( null == hint
-            ? getLoggerForComponent( role )
-            : new Slf4jLogger( loggerFactory.getLogger( role + '.' + hint ) ) );
+        RoleLoggers roleLoggers = loggers.get( role );
+        if ( roleLoggers == null )
+        {
+            RoleLoggers created = new RoleLoggers();
+            roleLoggers = loggers.putIfAbsent( role, created );
+            if ( roleLoggers == null )
+            {
+                roleLoggers = created;
+            }
+        }
+
+        Slf4jLogger logger = roleLoggers.get( hint );
+        if ( logger == null )
+        {
+            Slf4jLogger created =
+                new Slf4jLogger( loggerFactory.getLogger( null == hint ? role : role + '.' + hint ), cacheLevels );
+            created.setThreshold( threshold );
+            logger = roleLoggers.putIfAbsent( hint, created );
+            if ( logger == null )
+            {
+                activeLoggerCount.incrementAndGet();
+                logger = created;
+            }
+        }
+        return logger;
     }
 
-    //
-    // Trying to give loggers back is a bad idea. Ceki said so :-)
-    // notice to self: what was this method supposed to do?
-    //
     /**
-     * <b>Warning</b>: ignored.
+     * Forgets the logger of the component, the next lookup creating a new one.
      */
     public void returnComponentLogger( String role )
     {
+        returnComponentLogger( role, null );
     }
 
     /**
-     * <b>Warning</b>: ignored.
+     * Forgets the logger of the component, the next lookup creating a new one.
      */
     public void returnComponentLogger( String role, String hint )
     {
+        RoleLoggers roleLoggers = loggers.get( role );
+        if ( roleLoggers != null && roleLoggers.remove( hint ) )
+        {
+            activeLoggerCount.decrementAndGet();
+        }
     }
 
     /**
-     * <b>Warning</b>: ignored (always return <code>0</code>).
+     * @return the threshold given to new loggers, <code>Logger.LEVEL_DEBUG</code> unless set: the levels of the
+     *         SLF4J binding then apply alone
      */
     public int getThreshold()
     {
-        return 0;
+        return threshold;
     }
 
     /**
-     * <b>Warning</b>: ignored.
+     * Sets the threshold given to loggers created from now on.
      */
     public void setThreshold( int threshold )
     {
+        this.threshold = threshold;
     }
 
     /**
-     * <b>Warning</b>: ignored.
+     * Sets the threshold given to loggers created from now on and of the active ones.
      */
     public void setThresholds( int threshold )
     {
+        this.threshold = threshold;
+        for ( RoleLoggers roleLoggers : loggers.values() )
+        {
+            roleLoggers.setThreshold( threshold );
+        }
     }
 
     /**
-     * <b>Warning</b>: ignored (always return <code>0</code>).
+     * @return the number of loggers looked up and not returned
      */
     public int getActiveLoggerCount()
     {
-        return 0;
+        return activeLoggerCount.get();
     }
 
+    /**
+     * The loggers of one role, the one without hint apart so the <code>null</code> hint needs no map key.
+     */
+    private static final class RoleLoggers
+    {
+        private volatile Slf4jLogger withoutHint;
+
+        private final ConcurrentMap<String, Slf4jLogger> byHint = new ConcurrentHashMap<>( 4 );
+
+        Slf4jLogger get( String hint )
+        {
+            return hint == null ? withoutHint : byHint.get( hint );
+        }
+
+        /**
+         * @return the logger already present, {@code null} if the given one was added
+         */
+        Slf4jLogger putIfAbsent( String hint, Slf4jLogger logger )
+        {
+            if ( hint != null )
+            {
+                return byHint.putIfAbsent( hint, logger );
+            }
+            synchronized ( this )
+            {
+                Slf4jLogger present = withoutHint;
+                if ( present == null )
+                {
+                    withoutHint = logger;
+                }
+                return present;
+            }
+        }
+
+        boolean remove( String hint )
+        {
+            if ( hint != null )
+            {
+                return byHint.remove( hint ) != null;
+            }
+            synchronized ( this )
+            {
+                Slf4jLogger present = withoutHint;
+                withoutHint = null;
+                return present != null;
+            }
+        }
+
+        void setThreshold( int threshold )
+        {
+            Slf4jLogger logger = withoutHint;
+            if ( logger != null )
+            {
+                logger.setThreshold( threshold );
+            }
+            for ( Slf4jLogger hinted : byHint.values() )
+            {
+                hinted.setThreshold( threshold );
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@
 
 import org.slf4j.Logger;
 import org.slf4j.Marker;
+import org.slf4j.event.Level;
 
 /**
  * @since 3.1.0
@@ -30,8 +31,6 @@
 public class Slf4jStdoutLogger
     implements Logger
 {
-    private static final String ERROR = "[ERROR] ";
-
     private PrintStream out = System.out;
 
     //
@@ -39,7 +38,7 @@
     //
     public void error( String msg )
     {
-        out.print( ERROR );
+        out.print( ConsoleOutput.getLevelPrefix( Level.ERROR ) );
         out.println( msg );
     }
 
@@ -0,0 +1,65 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter incremented by many threads without contending on a single value: each thread increments a cell picked
+ * from its id, cells being a cache line apart, and the value is the sum of the cells.
+ *
+ * @since 3.6.4
+ */
+final class StripedCounter
+{
+    private static final int MAX_STRIPES = 16;
+
+    private static final int STRIPES = Integer.highestOneBit(
+        Math.max( 1, Math.min( Runtime.getRuntime().availableProcessors(), MAX_STRIPES ) ) * 2 - 1 );
+
+    /**
+     * 2^64 divided by the golden ratio, spreading consecutive thread ids over the stripes (Fibonacci hashing).
+     */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Longs per cache line.
+     */
+    private static final int SPACING = 8;
+
+    private final AtomicLongArray cells = new AtomicLongArray( STRIPES * SPACING );
+
+    void increment()
+    {
+        long id = Thread.currentThread().getId();
+        int stripe = (int) ( ( id * GOLDEN_RATIO ) >>> Integer.SIZE ) & ( STRIPES - 1 );
+        cells.incrementAndGet( stripe * SPACING );
+    }
+
+    long sum()
+    {
+        long sum = 0;
+        for ( int stripe = 0; stripe < STRIPES; stripe++ )
+        {
+            sum += cells.get( stripe * SPACING );
+        }
+        return sum;
+    }
+}
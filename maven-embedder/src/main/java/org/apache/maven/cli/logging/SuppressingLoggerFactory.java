@@ -0,0 +1,317 @@
+package org.apache.maven.cli.logging;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * Wraps the loggers of the SLF4J binding so that a message logged over and over, like a deprecated parameter or a
+ * duplicate class warning in each module of a large build, is only logged the first times. Messages are told apart by
+ * level and message format, whatever its arguments. Later occurrences are counted and listed by
+ * {@link #logSummary()} at the end of the build. Errors are never suppressed.
+ * <p>
+ * Enabled with <code>-Dmaven.logging.suppress.limit=<i>n</i></code>, the number of occurrences logged.
+ * <code>-Dmaven.logging.suppress.exclude</code> lists comma separated logger categories never suppressed, see
+ * {@link LoggerLevels} for how they match. Memory stays bounded: at most
+ * <code>-Dmaven.logging.suppress.maxMessages</code> messages, 1024 by default, are tracked, and messages past this
+ * number or longer than 1024 characters are always logged.
+ *
+ * @since 3.6.4
+ */
+public final class SuppressingLoggerFactory
+    implements ILoggerFactory
+{
+    public static final String LIMIT_PROPERTY = "maven.logging.suppress.limit";
+
+    public static final String EXCLUDE_PROPERTY = "maven.logging.suppress.exclude";
+
+    public static final String MAX_MESSAGES_PROPERTY = "maven.logging.suppress.maxMessages";
+
+    private static final int DEFAULT_MAX_MESSAGES = 1024;
+
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private static final int SUMMARY_ROWS = 50;
+
+    private static final Comparator<Fingerprint> MOST_SUPPRESSED = new Comparator<Fingerprint>()
+    {
+        @Override
+        public int compare( Fingerprint a, Fingerprint b )
+        {
+            return Long.compare( b.suppressedCount(), a.suppressedCount() );
+        }
+    };
+
+    private final ILoggerFactory delegate;
+
+    private final int limit;
+
+    private final int maxMessages;
+
+    private final LoggerLevels excluded;
+
+    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<>();
+
+    /**
+     * The tracked messages by level and format.
+     */
+    private final Map<Level, ConcurrentMap<String, Fingerprint>> fingerprints = new EnumMap<>( Level.class );
+
+    private final AtomicInteger fingerprintCount = new AtomicInteger();
+
+    /**
+     * @param delegate the logger factory of the binding
+     * @param limit the number of occurrences of a message logged
+     * @param maxMessages the number of messages tracked
+     * @param excluded the logger categories never suppressed
+     */
+    public SuppressingLoggerFactory( ILoggerFactory delegate, int limit, int maxMessages, List<String> excluded )
+    {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.maxMessages = maxMessages;
+        Map<String, Integer> categories = new HashMap<>();
+        for ( String category : excluded )
+        {
+            categories.put( category, 0 );
+        }
+        this.excluded = LoggerLevels.of( categories );
+        for ( Level level : Level.values() )
+        {
+            fingerprints.put( level, new ConcurrentHashMap<String, Fingerprint>() );
+        }
+    }
+
+    /**
+     * @param delegate the logger factory of the binding
+     * @return the suppressing logger factory configured by the system properties, or {@code null} if not requested
+     */
+    public static SuppressingLoggerFactory newInstance( ILoggerFactory delegate )
+    {
+        Integer limit = Integer.getInteger( LIMIT_PROPERTY );
+        if ( limit == null || limit < 0 )
+        {
+            return null;
+        }
+        List<String> excluded = new ArrayList<>();
+        for ( String category : System.getProperty( EXCLUDE_PROPERTY, "" ).split( "," ) )
+        {
+            if ( !category.trim().isEmpty() )
+            {
+                excluded.add( category.trim() );
+            }
+        }
+        return new SuppressingLoggerFactory( delegate, limit,
+                                             Integer.getInteger( MAX_MESSAGES_PROPERTY, DEFAULT_MAX_MESSAGES ),
+                                             excluded );
+    }
+
+    public ILoggerFactory getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public Logger getLogger( String name )
+    {
+        Logger logger = loggers.get( name );
+        if ( logger == null )
+        {
+            Logger created = delegate.getLogger( name );
+            if ( excluded.getLevel( name ) == LoggerLevels.NONE )
+            {
+                created = new SuppressingLogger( created );
+            }
+            logger = loggers.putIfAbsent( name, created );
+            if ( logger == null )
+            {
+                logger = created;
+            }
+        }
+        return logger;
+    }
+
+    /**
+     * @return the total number of suppressed occurrences
+     */
+    public long getSuppressedCount()
+    {
+        long count = 0;
+        for ( ConcurrentMap<String, Fingerprint> byFormat : fingerprints.values() )
+        {
+            for ( Fingerprint fingerprint : byFormat.values() )
+            {
+                count += fingerprint.suppressedCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Logs the messages that were suppressed, the most frequent first, with the number of suppressed occurrences.
+     */
+    public void logSummary()
+    {
+        List<Fingerprint> suppressed = new ArrayList<>();
+        for ( ConcurrentMap<String, Fingerprint> byFormat : fingerprints.values() )
+        {
+            for ( Fingerprint fingerprint : byFormat.values() )
+            {
+                if ( fingerprint.suppressedCount() > 0 )
+                {
+                    suppressed.add( fingerprint );
+                }
+            }
+        }
+        if ( suppressed.isEmpty() )
+        {
+            return;
+        }
+        Collections.sort( suppressed, MOST_SUPPRESSED );
+
+        Logger logger = delegate.getLogger( SuppressingLoggerFactory.class.getName() );
+        logger.warn( "Repeated log messages, suppressed after {} occurrences:", limit );
+        logger.warn( String.format( "%10s  %-7s  %s", "Suppressed", "Level", "Message" ) );
+        for ( Fingerprint fingerprint : suppressed.subList( 0, Math.min( SUMMARY_ROWS, suppressed.size() ) ) )
+        {
+            logger.warn( String.format( "%10d  %-7s  %s", fingerprint.suppressedCount(), fingerprint.level,
+                                        firstLine( fingerprint.format ) ) );
+        }
+        if ( suppressed.size() > SUMMARY_ROWS )
+        {
+            logger.warn( "... and {} other messages", suppressed.size() - SUMMARY_ROWS );
+        }
+    }
+
+    private static String firstLine( String message )
+    {
+        int end = message.indexOf( '\n' );
+        return end < 0 ? message : message.substring( 0, end ) + " ...";
+    }
+
+    /**
+     * @return {@code true} if the occurrence is to be logged
+     */
+    private boolean admit( Level level, String format )
+    {
+        if ( level == Level.ERROR || format == null || format.length() > MAX_MESSAGE_LENGTH )
+        {
+            return true;
+        }
+        ConcurrentMap<String, Fingerprint> byFormat = fingerprints.get( level );
+        Fingerprint fingerprint = byFormat.get( format );
+        if ( fingerprint == null )
+        {
+            if ( fingerprintCount.get() >= maxMessages )
+            {
+                return true;
+            }
+            Fingerprint created = new Fingerprint( level, format );
+            fingerprint = byFormat.putIfAbsent( format, created );
+            if ( fingerprint == null )
+            {
+                fingerprintCount.incrementAndGet();
+                fingerprint = created;
+            }
+        }
+        return fingerprint.admit( limit );
+    }
+
+    /**
+     * A message, the number of times it was logged and the number of times it was suppressed.
+     */
+    private static final class Fingerprint
+    {
+        final Level level;
+
+        final String format;
+
+        private final AtomicInteger logged = new AtomicInteger();
+
+        private volatile StripedCounter suppressed;
+
+        Fingerprint( Level level, String format )
+        {
+            this.level = level;
+            this.format = format;
+        }
+
+        boolean admit( int limit )
+        {
+            if ( logged.get() < limit && logged.incrementAndGet() <= limit )
+            {
+                return true;
+            }
+            StripedCounter counter = suppressed;
+            if ( counter == null )
+            {
+                synchronized ( this )
+                {
+                    counter = suppressed;
+                    if ( counter == null )
+                    {
+                        counter = new StripedCounter();
+                        suppressed = counter;
+                    }
+                }
+            }
+            counter.increment();
+            return false;
+        }
+
+        long suppressedCount()
+        {
+            StripedCounter counter = suppressed;
+            return counter != null ? counter.sum() : 0;
+        }
+    }
+
+    private final class SuppressingLogger
+        extends ForwardingLogger
+    {
+        SuppressingLogger( Logger delegate )
+        {
+            super( delegate );
+        }
+
+        @Override
+        protected void log( Level level, Marker marker, String format, Object[] arguments, Throwable throwable )
+        {
+            if ( admit( level, format ) )
+            {
+                super.log( level, marker, format, arguments, throwable );
+            }
+        }
+    }
+}
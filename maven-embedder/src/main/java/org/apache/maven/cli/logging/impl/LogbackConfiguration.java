@@ -53,6 +53,36 @@ public void setRootLoggerLevel( Level level )
         ( (ch.qos.logback.classic.Logger) LoggerFactory.getLogger( Logger.ROOT_LOGGER_NAME ) ).setLevel( value );
     }
 
+    @Override
+    public void setLoggerLevel( String name, int level )
+    {
+        ch.qos.logback.classic.Level value;
+        switch ( level )
+        {
+            case org.codehaus.plexus.logging.Logger.LEVEL_DEBUG:
+                value = ch.qos.logback.classic.Level.DEBUG;
+                break;
+
+            case org.codehaus.plexus.logging.Logger.LEVEL_INFO:
+                value = ch.qos.logback.classic.Level.INFO;
+                break;
+
+            case org.codehaus.plexus.logging.Logger.LEVEL_WARN:
+                value = ch.qos.logback.classic.Level.WARN;
+                break;
+
+            case org.codehaus.plexus.logging.Logger.LEVEL_ERROR:
+            case org.codehaus.plexus.logging.Logger.LEVEL_FATAL:
+                value = ch.qos.logback.classic.Level.ERROR;
+                break;
+
+            default:
+                value = ch.qos.logback.classic.Level.OFF;
+                break;
+        }
+        ( (ch.qos.logback.classic.Logger) LoggerFactory.getLogger( name ) ).setLevel( value );
+    }
+
     @Override
     public void activate()
     {
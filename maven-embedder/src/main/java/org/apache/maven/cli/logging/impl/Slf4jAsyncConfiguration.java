@@ -0,0 +1,50 @@
+package org.apache.maven.cli.logging.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.cli.internal.RequestScope;
+import org.apache.maven.cli.logging.AsyncOutput;
+import org.apache.maven.cli.logging.ModuleOutput;
+
+/**
+ * Configuration for Maven's slf4j-simple binding, which additionally makes the standard output asynchronous when
+ * requested with <code>-Dmaven.logging.async</code>, see {@link AsyncOutput}. As the binding keeps the stream it
+ * writes to, the asynchronous one is installed first.
+ * <p>
+ * In concurrent execution mode, the standard streams route to the build of the printing thread, which the writer
+ * thread is not part of: the output then stays synchronous. So it does with {@link ModuleOutput}, which already
+ * keeps module threads off the console lock.
+ *
+ * @since 3.6.4
+ */
+public class Slf4jAsyncConfiguration
+    extends Slf4jSimpleConfiguration
+{
+    @Override
+    public void activate()
+    {
+        AsyncOutput.Overflow overflow = AsyncOutput.getRequestedOverflow();
+        if ( overflow != null && !RequestScope.isInstalled() && !ModuleOutput.isInstalled() )
+        {
+            AsyncOutput.install( overflow );
+        }
+        super.activate();
+    }
+}
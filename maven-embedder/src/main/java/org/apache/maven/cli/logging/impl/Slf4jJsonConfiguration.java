@@ -0,0 +1,133 @@
+package org.apache.maven.cli.logging.impl;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.cli.logging.BaseSlf4jConfiguration;
+import org.apache.maven.cli.logging.JsonLoggerFactory;
+import org.apache.maven.cli.logging.LogFileSink;
+import org.apache.maven.cli.logging.Slf4jConfiguration;
+import org.slf4j.ILoggerFactory;
+
+/**
+ * Structured logging, requested with <code>-Dmaven.logging.json=<i>file</i></code> to write newline-delimited JSON
+ * records to the given file alongside the usual console output, or with <code>-Dmaven.logging.json=console</code> to
+ * write them to the standard output instead of the text. It applies on top of the configuration of the SLF4J
+ * binding, which keeps deciding the levels, and the file is written like the <code>-l</code> one, see
+ * {@link LogFileSink}.
+ * <p>
+ * Only the loggers of the logger factory returned by {@link #getLoggerFactory(ILoggerFactory)}, which Maven gives its
+ * components, write JSON: loggers obtained from the static <code>LoggerFactory</code> keep the text output.
+ *
+ * @since 3.6.4
+ */
+public class Slf4jJsonConfiguration
+    extends BaseSlf4jConfiguration
+    implements Closeable
+{
+    public static final String PROPERTY = "maven.logging.json";
+
+    public static final String CONSOLE = "console";
+
+    private final Slf4jConfiguration delegate;
+
+    private final File file;
+
+    private LogFileSink sink;
+
+    /**
+     * @param delegate the configuration of the SLF4J binding
+     * @param file the file to write the records to, or {@code null} for the standard output
+     */
+    public Slf4jJsonConfiguration( Slf4jConfiguration delegate, File file )
+    {
+        this.delegate = delegate;
+        this.file = file;
+    }
+
+    /**
+     * @return the requested target, the {@link #CONSOLE} or a file path, or {@code null} if none was
+     */
+    public static String getRequestedTarget()
+    {
+        String target = System.getProperty( PROPERTY );
+        return target == null || target.isEmpty() ? null : target;
+    }
+
+    @Override
+    public void setRootLoggerLevel( Level level )
+    {
+        delegate.setRootLoggerLevel( level );
+    }
+
+    @Override
+    public void setLoggerLevel( String name, int level )
+    {
+        if ( delegate instanceof BaseSlf4jConfiguration )
+        {
+            ( (BaseSlf4jConfiguration) delegate ).setLoggerLevel( name, level );
+        }
+        else
+        {
+            super.setLoggerLevel( name, level );
+        }
+    }
+
+    @Override
+    public void activate()
+    {
+        delegate.activate();
+    }
+
+    /**
+     * Wraps the logger factory of the activated binding.
+     *
+     * @param loggerFactory the logger factory of the binding
+     * @return the logger factory writing JSON
+     * @throws IOException if the file cannot be created
+     */
+    public ILoggerFactory getLoggerFactory( ILoggerFactory loggerFactory )
+        throws IOException
+    {
+        if ( file == null )
+        {
+            return new JsonLoggerFactory( loggerFactory, System.out, false );
+        }
+        if ( sink == null )
+        {
+            sink = LogFileSink.open( file );
+        }
+        return new JsonLoggerFactory( loggerFactory, sink, true );
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        if ( sink != null )
+        {
+            sink.close();
+            sink = null;
+        }
+    }
+}
@@ -20,6 +20,7 @@
  */
 
 import org.apache.maven.cli.logging.BaseSlf4jConfiguration;
+import org.codehaus.plexus.logging.Logger;
 import org.slf4j.MavenSlf4jFriend;
 import org.slf4j.impl.MavenSlf4jSimpleFriend;
 
@@ -53,6 +54,36 @@ public void setRootLoggerLevel( Level level )
         System.setProperty( "org.slf4j.simpleLogger.defaultLogLevel", value );
     }
 
+    @Override
+    public void setLoggerLevel( String name, int level )
+    {
+        String value;
+        switch ( level )
+        {
+            case Logger.LEVEL_DEBUG:
+                value = "debug";
+                break;
+
+            case Logger.LEVEL_INFO:
+                value = "info";
+                break;
+
+            case Logger.LEVEL_WARN:
+                value = "warn";
+                break;
+
+            case Logger.LEVEL_ERROR:
+            case Logger.LEVEL_FATAL:
+                value = "error";
+                break;
+
+            default:
+                value = "off";
+                break;
+        }
+        System.setProperty( "org.slf4j.simpleLogger.log." + name, value );
+    }
+
     @Override
     public void activate()
     {
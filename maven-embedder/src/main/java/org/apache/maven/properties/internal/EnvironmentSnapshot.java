@@ -0,0 +1,308 @@
+package org.apache.maven.properties.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.codehaus.plexus.util.Os;
+
+/**
+ * An immutable set of environment variables, stored as the differences to the base environment of its
+ * {@link EnvironmentStore}, so that snapshots of similar environments share almost all of their memory.
+ * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not
+ * part of the public API. In particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.6.4
+ */
+public final class EnvironmentSnapshot
+    extends AbstractMap<String, String>
+{
+    /**
+     * The snapshot this one is relative to, {@code null} for a base environment.
+     */
+    private final EnvironmentSnapshot base;
+
+    /**
+     * The variables added or changed with respect to the base.
+     */
+    private final Map<String, String> variables;
+
+    /**
+     * The variables of the base that are not part of this snapshot.
+     */
+    private final Set<String> removed;
+
+    private final int size;
+
+    private final Set<Map.Entry<String, String>> entrySet = new EntrySet();
+
+    private volatile EnvironmentSnapshot normalized;
+
+    EnvironmentSnapshot( EnvironmentSnapshot base, Map<String, String> variables, Set<String> removed )
+    {
+        this.base = base;
+        this.variables = variables;
+        this.removed = removed;
+
+        int size = variables.size();
+        if ( base != null )
+        {
+            size += base.size() - removed.size();
+            for ( String name : variables.keySet() )
+            {
+                if ( base.containsKey( name ) && !removed.contains( name ) )
+                {
+                    size--;
+                }
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * @return {@code true} if this snapshot only holds differences to another snapshot
+     */
+    public boolean isOverlay()
+    {
+        return base != null;
+    }
+
+    /**
+     * @return the number of variables this snapshot stores itself, added, changed or removed
+     */
+    public int getOverlaySize()
+    {
+        return base != null ? variables.size() + removed.size() : 0;
+    }
+
+    /**
+     * Returns this snapshot with the variable names in the form used for properties: unchanged where variable names
+     * are case-sensitive, in upper case otherwise. The result is computed once per snapshot.
+     *
+     * @return the normalized snapshot, never {@code null}
+     */
+    public EnvironmentSnapshot normalized()
+    {
+        if ( !Os.isFamily( Os.FAMILY_WINDOWS ) )
+        {
+            return this;
+        }
+        if ( normalized == null )
+        {
+            Map<String, String> upperCaseVariables = new HashMap<>( variables.size() * 4 / 3 + 1 );
+            for ( Map.Entry<String, String> entry : variables.entrySet() )
+            {
+                upperCaseVariables.put( entry.getKey().toUpperCase( Locale.ENGLISH ), entry.getValue() );
+            }
+            Set<String> upperCaseRemoved = new HashSet<>();
+            for ( String name : removed )
+            {
+                upperCaseRemoved.add( name.toUpperCase( Locale.ENGLISH ) );
+            }
+            normalized = new EnvironmentSnapshot( base != null ? base.normalized() : null, upperCaseVariables,
+                                                  upperCaseRemoved );
+        }
+        return normalized;
+    }
+
+    @Override
+    public String get( Object name )
+    {
+        String value = variables.get( name );
+        if ( value == null && base != null && !removed.contains( name ) )
+        {
+            value = base.get( name );
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey( Object name )
+    {
+        return get( name ) != null;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet()
+    {
+        return entrySet;
+    }
+
+    private final class EntrySet
+        extends AbstractSet<Map.Entry<String, String>>
+    {
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator()
+        {
+            final Iterator<Map.Entry<String, String>> own = variables.entrySet().iterator();
+            final Iterator<Map.Entry<String, String>> inherited =
+                base != null ? base.entrySet().iterator()
+                                : Collections.<Map.Entry<String, String>>emptyIterator();
+
+            return new Iterator<Map.Entry<String, String>>()
+            {
+                private Map.Entry<String, String> next;
+
+                @Override
+                public boolean hasNext()
+                {
+                    while ( next == null )
+                    {
+                        if ( own.hasNext() )
+                        {
+                            next = new SimpleImmutableEntry<>( own.next() );
+                        }
+                        else if ( inherited.hasNext() )
+                        {
+                            Map.Entry<String, String> entry = inherited.next();
+                            if ( !variables.containsKey( entry.getKey() ) && !removed.contains( entry.getKey() ) )
+                            {
+                                next = entry;
+                            }
+                        }
+                        else
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public Map.Entry<String, String> next()
+                {
+                    if ( !hasNext() )
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<String, String> result = next;
+                    next = null;
+                    return result;
+                }
+
+                @Override
+                public void remove()
+                {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * Collects the variables of a new snapshot one by one, keeping only the differences to the base environment.
+     */
+    public static final class Builder
+    {
+        private final EnvironmentStore store;
+
+        private final EnvironmentSnapshot base;
+
+        private final Map<String, String> variables = new HashMap<>();
+
+        private final Set<String> inherited = new HashSet<>();
+
+        Builder( EnvironmentStore store, EnvironmentSnapshot base )
+        {
+            this.store = store;
+            this.base = base;
+        }
+
+        public Builder put( String name, String value )
+        {
+            String baseValue = base.get( name );
+            if ( value.equals( baseValue ) )
+            {
+                inherited.add( name );
+                variables.remove( name );
+            }
+            else
+            {
+                inherited.remove( name );
+                variables.put( store.intern( name ), value );
+            }
+            return this;
+        }
+
+        public Builder putAll( Map<String, String> environment )
+        {
+            for ( Map.Entry<String, String> entry : environment.entrySet() )
+            {
+                put( entry.getKey(), entry.getValue() );
+            }
+            return this;
+        }
+
+        /**
+         * @return the snapshot, which is the base environment itself if no variable differs from it
+         */
+        public EnvironmentSnapshot build()
+        {
+            int covered = inherited.size();
+            for ( String name : variables.keySet() )
+            {
+                if ( base.containsKey( name ) )
+                {
+                    covered++;
+                }
+            }
+
+            Set<String> removed = Collections.emptySet();
+            if ( covered < base.size() )
+            {
+                removed = new HashSet<>();
+                for ( String name : base.keySet() )
+                {
+                    if ( !inherited.contains( name ) && !variables.containsKey( name ) )
+                    {
+                        removed.add( name );
+                    }
+                }
+            }
+
+            if ( variables.isEmpty() && removed.isEmpty() )
+            {
+                return base;
+            }
+            return new EnvironmentSnapshot( base, new HashMap<>( variables ), removed );
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.maven.properties.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates {@link EnvironmentSnapshot}s relative to a shared base environment, by default the one of the current JVM.
+ * A process serving builds for other processes, like the build daemon, keeps one snapshot per request: variables
+ * equal to the base are not stored again and variable names are shared between snapshots, so the memory used per
+ * request only grows with the number of variables that differ. Instances are safe for concurrent use.
+ * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not
+ * part of the public API. In particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.6.4
+ */
+public final class EnvironmentStore
+{
+    /**
+     * Bounds the shared variable names, in case a client sends generated ones.
+     */
+    private static final int MAX_NAMES = 16 * 1024;
+
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    private final EnvironmentSnapshot base;
+
+    private static final class Holder
+    {
+        static final EnvironmentStore INSTANCE = new EnvironmentStore( System.getenv() );
+    }
+
+    public EnvironmentStore( Map<String, String> baseEnvironment )
+    {
+        Map<String, String> variables = new HashMap<>( baseEnvironment.size() * 4 / 3 + 1 );
+        for ( Map.Entry<String, String> entry : baseEnvironment.entrySet() )
+        {
+            variables.put( intern( entry.getKey() ), entry.getValue() );
+        }
+        this.base = new EnvironmentSnapshot( null, variables, Collections.<String>emptySet() );
+    }
+
+    /**
+     * @return the store whose base is the environment of the current JVM
+     */
+    public static EnvironmentStore getInstance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the base environment, never {@code null}
+     */
+    public EnvironmentSnapshot getBase()
+    {
+        return base;
+    }
+
+    /**
+     * Returns a snapshot of the given environment.
+     *
+     * @param environment the environment variables, must not be {@code null}
+     * @return the snapshot, the given map itself if it already is a snapshot
+     */
+    public EnvironmentSnapshot snapshot( Map<String, String> environment )
+    {
+        if ( environment instanceof EnvironmentSnapshot )
+        {
+            return (EnvironmentSnapshot) environment;
+        }
+        return newSnapshot().putAll( environment ).build();
+    }
+
+    /**
+     * @return a builder for a snapshot to be filled one variable at a time, e.g. while reading it from a client
+     */
+    public EnvironmentSnapshot.Builder newSnapshot()
+    {
+        return new EnvironmentSnapshot.Builder( this, base );
+    }
+
+    String intern( String name )
+    {
+        String shared = names.get( name );
+        if ( shared == null )
+        {
+            if ( names.size() >= MAX_NAMES )
+            {
+                return name;
+            }
+            shared = names.putIfAbsent( name, name );
+            if ( shared == null )
+            {
+                shared = name;
+            }
+        }
+        return shared;
+    }
+}
@@ -19,6 +19,7 @@
  * under the License.
  */
 
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -36,7 +37,7 @@
 public class EnvironmentUtils
 {
 
-    private static Properties envVars;
+    private static volatile Properties envVars;
 
     /**
      * Adds the environment variables in the form of properties whose keys are prefixed with {@code env.}, e.g. {@code
@@ -52,19 +53,101 @@ public static void addEnvVars( Properties props )
         {
             if ( envVars == null )
             {
-                Properties tmp = new Properties();
-                boolean caseSensitive = !Os.isFamily( Os.FAMILY_WINDOWS );
-                for ( Map.Entry<String, String> entry : System.getenv().entrySet() )
-                {
-                    String key =
-                        "env." + ( caseSensitive ? entry.getKey() : entry.getKey().toUpperCase( Locale.ENGLISH ) );
-                    tmp.setProperty( key, entry.getValue() );
-                }
-                envVars = tmp;
+                envVars = toProperties( System.getenv() );
             }
 
             props.putAll( envVars );
         }
     }
 
+    /**
+     * Adds the given environment variables, typically the ones of a client process, in the same form as
+     * {@link #addEnvVars(Properties)} does for the environment of the current JVM.
+     *
+     * @param props The properties to add the environment variables to, may be {@code null}.
+     * @param environment The environment variables to add, must not be {@code null}.
+     * @since 3.6.4
+     */
+    public static void addEnvVars( Properties props, Map<String, String> environment )
+    {
+        if ( props != null )
+        {
+            props.putAll( toProperties( environment ) );
+        }
+    }
+
+    /**
+     * Returns the environment variables of the current JVM as a property source, in the same form as
+     * {@link #addEnvVars(Properties)} adds them but without copying them.
+     *
+     * @return the property source, named {@code environment}, never {@code null}
+     * @since 3.6.4
+     */
+    public static PropertySource getEnvVarsSource()
+    {
+        return new EnvVarsSource( EnvironmentStore.getInstance().getBase().normalized() );
+    }
+
+    /**
+     * Returns the given environment variables as a property source, in the same form as
+     * {@link #addEnvVars(Properties)} adds them. Maps other than {@link EnvironmentSnapshot}s are first turned into a
+     * snapshot of the {@link EnvironmentStore#getInstance() JVM store}.
+     *
+     * @param environment The environment variables, must not be {@code null}.
+     * @return the property source, named {@code environment}, never {@code null}
+     * @since 3.6.4
+     */
+    public static PropertySource getEnvVarsSource( Map<String, String> environment )
+    {
+        return new EnvVarsSource( EnvironmentStore.getInstance().snapshot( environment ).normalized() );
+    }
+
+    private static Properties toProperties( Map<String, String> environment )
+    {
+        Properties tmp = new Properties();
+        boolean caseSensitive = !Os.isFamily( Os.FAMILY_WINDOWS );
+        for ( Map.Entry<String, String> entry : environment.entrySet() )
+        {
+            String key = "env." + ( caseSensitive ? entry.getKey() : entry.getKey().toUpperCase( Locale.ENGLISH ) );
+            tmp.setProperty( key, entry.getValue() );
+        }
+        return tmp;
+    }
+
+    private static final class EnvVarsSource
+        implements PropertySource
+    {
+        private static final String PREFIX = "env.";
+
+        private final Map<String, String> environment;
+
+        EnvVarsSource( Map<String, String> environment )
+        {
+            this.environment = environment;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "environment";
+        }
+
+        @Override
+        public String getProperty( String key )
+        {
+            return key.startsWith( PREFIX ) ? environment.get( key.substring( PREFIX.length() ) ) : null;
+        }
+
+        @Override
+        public Map<String, String> getProperties()
+        {
+            Map<String, String> properties = new HashMap<>( environment.size() * 4 / 3 + 1 );
+            for ( Map.Entry<String, String> entry : environment.entrySet() )
+            {
+                properties.put( PREFIX + entry.getKey(), entry.getValue() );
+            }
+            return properties;
+        }
+    }
+
 }
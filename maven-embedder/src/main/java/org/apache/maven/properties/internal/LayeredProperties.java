@@ -0,0 +1,428 @@
+package org.apache.maven.properties.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * A {@link Properties} view over a chain of {@link PropertySource}s, where later sources take precedence over earlier
+ * ones and properties set through the view itself take precedence over all sources. Lookups are resolved lazily
+ * against the sources, so creating the view copies nothing. The first operation that needs the complete set of
+ * properties, like {@link #entrySet()}, {@link #size()} or {@link #store(java.io.OutputStream, String)}, merges the
+ * sources into the view once; from then on it behaves like plain {@link Properties}. The functional {@link Map}
+ * methods of Java 8, like {@code compute} or {@code forEach}, only see the merged properties.
+ * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not
+ * part of the public API. In particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.6.4
+ */
+public class LayeredProperties
+    extends Properties
+{
+    /**
+     * The name reported by {@link #getSource(String)} for properties set through the view itself.
+     */
+    public static final String LOCAL = "local";
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The sources, highest precedence first.
+     */
+    private final transient PropertySource[] sources;
+
+    private final transient Set<Object> written = new HashSet<>();
+
+    private volatile boolean merged;
+
+    /**
+     * @param sources the sources, lowest precedence first
+     */
+    public LayeredProperties( PropertySource... sources )
+    {
+        this.sources = new PropertySource[sources.length];
+        for ( int i = 0; i < sources.length; i++ )
+        {
+            this.sources[i] = sources[sources.length - 1 - i];
+        }
+    }
+
+    /**
+     * Returns a source reading through to the given properties, so later changes to them are visible.
+     *
+     * @param name the name of the source
+     * @param properties the properties
+     * @return the source, never {@code null}
+     */
+    public static PropertySource source( final String name, final Properties properties )
+    {
+        return new PropertySource()
+        {
+            @Override
+            public String getName()
+            {
+                return name;
+            }
+
+            @Override
+            public String getProperty( String key )
+            {
+                return properties.getProperty( key );
+            }
+
+            @Override
+            public Map<String, String> getProperties()
+            {
+                Map<String, String> result = new HashMap<>();
+                for ( String key : properties.stringPropertyNames() )
+                {
+                    result.put( key, properties.getProperty( key ) );
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * @return the sources, lowest precedence first
+     */
+    public List<PropertySource> getSources()
+    {
+        List<PropertySource> result = new ArrayList<>( Arrays.asList( sources ) );
+        Collections.reverse( result );
+        return result;
+    }
+
+    /**
+     * Tells where the current value of a property comes from.
+     *
+     * @param key the property key
+     * @return the name of the source defining the property, {@link #LOCAL} if it was set through this view, or
+     *         {@code null} if the property is not defined
+     */
+    public synchronized String getSource( String key )
+    {
+        if ( written.contains( key ) )
+        {
+            return LOCAL;
+        }
+        if ( merged && !super.containsKey( key ) )
+        {
+            return null;
+        }
+        for ( PropertySource source : sources )
+        {
+            if ( source.getProperty( key ) != null )
+            {
+                return source.getName();
+            }
+        }
+        return null;
+    }
+
+    private String lookup( String key )
+    {
+        for ( PropertySource source : sources )
+        {
+            String value = source.getProperty( key );
+            if ( value != null )
+            {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the properties of all sources that are not shadowed into this view, once.
+     */
+    private synchronized void merge()
+    {
+        if ( !merged )
+        {
+            for ( PropertySource source : sources )
+            {
+                for ( Map.Entry<String, String> entry : source.getProperties().entrySet() )
+                {
+                    if ( !super.containsKey( entry.getKey() ) )
+                    {
+                        super.put( entry.getKey(), entry.getValue() );
+                    }
+                }
+            }
+            merged = true;
+        }
+    }
+
+    @Override
+    public String getProperty( String key )
+    {
+        Object value = super.get( key );
+        if ( value == null && !merged )
+        {
+            return lookup( key );
+        }
+        return value instanceof String ? (String) value : null;
+    }
+
+    @Override
+    public String getProperty( String key, String defaultValue )
+    {
+        String value = getProperty( key );
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public Object get( Object key )
+    {
+        Object value = super.get( key );
+        if ( value == null && !merged && key instanceof String )
+        {
+            return lookup( (String) key );
+        }
+        return value;
+    }
+
+    // not an override on Java 7
+    public Object getOrDefault( Object key, Object defaultValue )
+    {
+        Object value = get( key );
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey( Object key )
+    {
+        return get( key ) != null;
+    }
+
+    @Override
+    public synchronized Object put( Object key, Object value )
+    {
+        Object previous = get( key );
+        super.put( key, value );
+        written.add( key );
+        return previous;
+    }
+
+    @Override
+    public synchronized void putAll( Map<?, ?> t )
+    {
+        for ( Map.Entry<?, ?> entry : t.entrySet() )
+        {
+            put( entry.getKey(), entry.getValue() );
+        }
+    }
+
+    // not an override on Java 7
+    public synchronized Object putIfAbsent( Object key, Object value )
+    {
+        Object current = get( key );
+        if ( current == null )
+        {
+            put( key, value );
+        }
+        return current;
+    }
+
+    // not an override on Java 7
+    public synchronized Object replace( Object key, Object value )
+    {
+        return containsKey( key ) ? put( key, value ) : null;
+    }
+
+    // not an override on Java 7
+    public synchronized boolean replace( Object key, Object oldValue, Object newValue )
+    {
+        Object current = get( key );
+        if ( current != null && current.equals( oldValue ) )
+        {
+            put( key, newValue );
+            return true;
+        }
+        return false;
+    }
+
+    // not an override on Java 7
+    public synchronized boolean remove( Object key, Object value )
+    {
+        Object current = get( key );
+        if ( current != null && current.equals( value ) )
+        {
+            remove( key );
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Object remove( Object key )
+    {
+        merge();
+        written.remove( key );
+        return super.remove( key );
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        merged = true;
+        written.clear();
+        super.clear();
+    }
+
+    @Override
+    public synchronized Object clone()
+    {
+        merge();
+        Properties copy = new Properties();
+        copy.putAll( this );
+        return copy;
+    }
+
+    @Override
+    public Set<Object> keySet()
+    {
+        merge();
+        return super.keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet()
+    {
+        merge();
+        return super.entrySet();
+    }
+
+    @Override
+    public Collection<Object> values()
+    {
+        merge();
+        return super.values();
+    }
+
+    @Override
+    public Enumeration<Object> keys()
+    {
+        merge();
+        return super.keys();
+    }
+
+    @Override
+    public Enumeration<Object> elements()
+    {
+        merge();
+        return super.elements();
+    }
+
+    @Override
+    public Enumeration<?> propertyNames()
+    {
+        merge();
+        return super.propertyNames();
+    }
+
+    @Override
+    public Set<String> stringPropertyNames()
+    {
+        merge();
+        return super.stringPropertyNames();
+    }
+
+    @Override
+    public int size()
+    {
+        merge();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        merge();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean contains( Object value )
+    {
+        merge();
+        return super.contains( value );
+    }
+
+    @Override
+    public boolean containsValue( Object value )
+    {
+        merge();
+        return super.containsValue( value );
+    }
+
+    @Override
+    public void list( PrintStream out )
+    {
+        merge();
+        super.list( out );
+    }
+
+    @Override
+    public void list( PrintWriter out )
+    {
+        merge();
+        super.list( out );
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        merge();
+        return super.toString();
+    }
+
+    @Override
+    public synchronized boolean equals( Object o )
+    {
+        merge();
+        return super.equals( o );
+    }
+
+    @Override
+    public synchronized int hashCode()
+    {
+        merge();
+        return super.hashCode();
+    }
+
+    private Object writeReplace()
+    {
+        return clone();
+    }
+}
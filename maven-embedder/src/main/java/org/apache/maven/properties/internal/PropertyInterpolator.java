@@ -0,0 +1,234 @@
+package org.apache.maven.properties.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Replaces <code>${name}</code> references in property values by the values of the referenced properties, which are
+ * interpolated in turn. References to undefined properties are left as they are, reference cycles are reported.
+ * <p>
+ * Each string is parsed once into a template of literal and reference segments, and templates are cached by string
+ * identity across instances, so values read again from the same properties are not scanned again. Within one
+ * instance, each referenced property is resolved only once: create a new instance after changing the properties.
+ * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not
+ * part of the public API. In particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.6.4
+ */
+public class PropertyInterpolator
+{
+    private static final int MAX_TEMPLATES = 4096;
+
+    private static final Map<IdentityKey, Template> TEMPLATES =
+        new LinkedHashMap<IdentityKey, Template>( 256, 0.75f, true )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<IdentityKey, Template> eldest )
+            {
+                return size() > MAX_TEMPLATES;
+            }
+        };
+
+    private final Properties properties;
+
+    private final Map<String, String> resolved = new HashMap<>();
+
+    private final List<String> resolving = new ArrayList<>();
+
+    /**
+     * @param properties the properties references are resolved against, typically a {@link LayeredProperties}
+     */
+    public PropertyInterpolator( Properties properties )
+    {
+        this.properties = properties;
+    }
+
+    /**
+     * @param value the value to interpolate, may be {@code null}
+     * @return the interpolated value, the given value itself if it has no references
+     * @throws IllegalArgumentException if the references form a cycle
+     */
+    public synchronized String interpolate( String value )
+    {
+        return value != null ? evaluate( compile( value ) ) : null;
+    }
+
+    /**
+     * @param key the property key
+     * @return the interpolated value of the property, or {@code null} if it is not defined
+     * @throws IllegalArgumentException if the references form a cycle
+     */
+    public synchronized String getProperty( String key )
+    {
+        return resolve( key );
+    }
+
+    private String evaluate( Template template )
+    {
+        if ( template.references.length == 0 )
+        {
+            return template.literals[0];
+        }
+
+        StringBuilder result = new StringBuilder();
+        for ( int i = 0; i < template.references.length; i++ )
+        {
+            result.append( template.literals[i] );
+            String value = resolve( template.references[i] );
+            if ( value != null )
+            {
+                result.append( value );
+            }
+            else
+            {
+                result.append( "${" ).append( template.references[i] ).append( '}' );
+            }
+        }
+        return result.append( template.literals[template.references.length] ).toString();
+    }
+
+    private String resolve( String name )
+    {
+        String value = resolved.get( name );
+        if ( value != null )
+        {
+            return value;
+        }
+
+        int start = resolving.indexOf( name );
+        if ( start >= 0 )
+        {
+            List<String> cycle = new ArrayList<>( resolving.subList( start, resolving.size() ) );
+            cycle.add( name );
+            String root = resolving.get( 0 );
+            resolving.clear();
+            throw new IllegalArgumentException( "Detected the following recursive expression cycle in '" + root
+                + "': " + cycle );
+        }
+
+        String raw = properties.getProperty( name );
+        if ( raw == null )
+        {
+            return null;
+        }
+
+        resolving.add( name );
+        value = evaluate( compile( raw ) );
+        resolving.remove( resolving.size() - 1 );
+
+        resolved.put( name, value );
+        return value;
+    }
+
+    static Template compile( String value )
+    {
+        IdentityKey key = new IdentityKey( value );
+        synchronized ( TEMPLATES )
+        {
+            Template template = TEMPLATES.get( key );
+            if ( template == null )
+            {
+                template = Template.parse( value );
+                TEMPLATES.put( key, template );
+            }
+            return template;
+        }
+    }
+
+    /**
+     * A value split at its references: {@code literals[i]} precedes {@code references[i]}, and the last literal
+     * follows the last reference.
+     */
+    static final class Template
+    {
+        private static final String[] NO_REFERENCES = new String[0];
+
+        final String[] literals;
+
+        final String[] references;
+
+        private Template( String[] literals, String[] references )
+        {
+            this.literals = literals;
+            this.references = references;
+        }
+
+        static Template parse( String value )
+        {
+            int start = value.indexOf( "${" );
+            if ( start < 0 )
+            {
+                return new Template( new String[] { value }, NO_REFERENCES );
+            }
+
+            List<String> literals = new ArrayList<>();
+            List<String> references = new ArrayList<>();
+            int literalStart = 0;
+            while ( start >= 0 )
+            {
+                int end = value.indexOf( '}', start + 2 );
+                if ( end < 0 )
+                {
+                    break;
+                }
+                if ( end > start + 2 )
+                {
+                    literals.add( value.substring( literalStart, start ) );
+                    references.add( value.substring( start + 2, end ) );
+                    literalStart = end + 1;
+                }
+                start = value.indexOf( "${", end + 1 );
+            }
+            literals.add( value.substring( literalStart ) );
+
+            return new Template( literals.toArray( new String[0] ), references.toArray( NO_REFERENCES ) );
+        }
+    }
+
+    private static final class IdentityKey
+    {
+        private final String value;
+
+        IdentityKey( String value )
+        {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            return obj instanceof IdentityKey && ( (IdentityKey) obj ).value == value;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode( value );
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.apache.maven.properties.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Map;
+
+/**
+ * A read-only source of properties, one layer of a {@link LayeredProperties}. Implementations must be safe for
+ * concurrent use. <strong>Warning:</strong> This is an internal utility interface that is only public for technical
+ * reasons, it is not part of the public API. In particular, this interface can be changed or deleted without prior
+ * notice.
+ *
+ * @since 3.6.4
+ */
+public interface PropertySource
+{
+    /**
+     * @return the name of this source, as reported in debug output, e.g. {@code system}
+     */
+    String getName();
+
+    /**
+     * @param key the property key, must not be {@code null}
+     * @return the value of the property, or {@code null} if this source does not define it
+     */
+    String getProperty( String key );
+
+    /**
+     * Returns all properties of this source. Only used when a layered view has to be enumerated, so implementations
+     * may compute the result on each call.
+     *
+     * @return the properties of this source, never {@code null}
+     */
+    Map<String, String> getProperties();
+}
@@ -19,6 +19,8 @@
  * under the License.
  */
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -26,6 +28,33 @@
  */
 public class SystemProperties
 {
+    private static final PropertySource SYSTEM_PROPERTIES_SOURCE = new PropertySource()
+    {
+        @Override
+        public String getName()
+        {
+            return "system";
+        }
+
+        @Override
+        public String getProperty( String key )
+        {
+            return System.getProperty( key );
+        }
+
+        @Override
+        public Map<String, String> getProperties()
+        {
+            Properties properties = getSystemProperties();
+            Map<String, String> result = new HashMap<>( properties.size() * 4 / 3 + 1 );
+            for ( String key : properties.stringPropertyNames() )
+            {
+                result.put( key, properties.getProperty( key ) );
+            }
+            return result;
+        }
+    };
+
     /**
      * Thread-safe System.properties copy implementation.
      */
@@ -60,4 +89,16 @@ public static Properties copyProperties( Properties properties )
         return copyProperties;
     }
 
+    /**
+     * Returns a property source reading through to {@link System#getProperties()}, so that layering the system
+     * properties does not copy them. Enumerating the source copies them in a thread-safe manner.
+     *
+     * @return the property source, named {@code system}, never {@code null}
+     * @since 3.6.4
+     */
+    public static PropertySource getSystemPropertiesSource()
+    {
+        return SYSTEM_PROPERTIES_SOURCE;
+    }
+
 }
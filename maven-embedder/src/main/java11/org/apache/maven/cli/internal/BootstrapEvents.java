@@ -0,0 +1,204 @@
+package org.apache.maven.cli.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.classworlds.ClassWorldListener;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the <code>MavenCli</code> bootstrap: phases, realm creation and disposal, component
+ * lookups and logging activation. This is the Java 11 variant of the class, packaged under
+ * <code>META-INF/versions/11</code>.
+ * <p>
+ * Events are only allocated once the cached {@link EventType} of their class tells they are enabled, so nothing is
+ * allocated, recorded nor retained when no recording enables them.
+ * <p>
+ * <strong>Warning:</strong> This is an internal class that is only public for technical reasons, it is not part of
+ * the public API.
+ *
+ * @since 3.6.4
+ */
+public final class BootstrapEvents
+{
+    private static final String CATEGORY = "Maven";
+
+    private static final EventType PHASE = EventType.getEventType( PhaseEvent.class );
+
+    private static final EventType LOOKUP = EventType.getEventType( LookupEvent.class );
+
+    private static final EventType LOGGING_ACTIVATION = EventType.getEventType( LoggingActivationEvent.class );
+
+    private static final EventType REALM = EventType.getEventType( RealmEvent.class );
+
+    private BootstrapEvents()
+    {
+    }
+
+    public static StartupProfiler.Span phase( String name )
+    {
+        if ( !PHASE.isEnabled() )
+        {
+            return StartupProfiler.NO_SPAN;
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.phase = name;
+        event.begin();
+        return event;
+    }
+
+    public static StartupProfiler.Span lookup( String role, String hint )
+    {
+        if ( !LOOKUP.isEnabled() )
+        {
+            return StartupProfiler.NO_SPAN;
+        }
+        LookupEvent event = new LookupEvent();
+        event.role = role;
+        event.hint = hint;
+        event.begin();
+        return event;
+    }
+
+    public static StartupProfiler.Span loggingActivation( String configuration )
+    {
+        if ( !LOGGING_ACTIVATION.isEnabled() )
+        {
+            return StartupProfiler.NO_SPAN;
+        }
+        LoggingActivationEvent event = new LoggingActivationEvent();
+        event.configuration = configuration;
+        event.begin();
+        return event;
+    }
+
+    public static ClassWorldListener realmListener()
+    {
+        return FlightRecorder.isAvailable() ? new RealmListener() : null;
+    }
+
+    static final class RealmListener
+        implements ClassWorldListener
+    {
+        @Override
+        public void realmCreated( ClassRealm realm )
+        {
+            commit( realm, "created" );
+        }
+
+        @Override
+        public void realmDisposed( ClassRealm realm )
+        {
+            commit( realm, "disposed" );
+        }
+
+        private static void commit( ClassRealm realm, String action )
+        {
+            if ( REALM.isEnabled() )
+            {
+                RealmEvent event = new RealmEvent();
+                event.realm = realm.getId();
+                event.action = action;
+                event.commit();
+            }
+        }
+    }
+
+    @Name( "org.apache.maven.Phase" )
+    @Label( "Bootstrap Phase" )
+    @Description( "A phase of the MavenCli bootstrap" )
+    @Category( CATEGORY )
+    @StackTrace( false )
+    static final class PhaseEvent
+        extends Event
+        implements StartupProfiler.Span
+    {
+        @Label( "Phase" )
+        String phase;
+
+        @Override
+        public void close()
+        {
+            commit();
+        }
+    }
+
+    @Name( "org.apache.maven.ComponentLookup" )
+    @Label( "Component Lookup" )
+    @Description( "A lookup in the Plexus container" )
+    @Category( CATEGORY )
+    static final class LookupEvent
+        extends Event
+        implements StartupProfiler.Span
+    {
+        @Label( "Role" )
+        String role;
+
+        @Label( "Hint" )
+        String hint;
+
+        @Override
+        public void close()
+        {
+            commit();
+        }
+    }
+
+    @Name( "org.apache.maven.LoggingActivation" )
+    @Label( "Logging Activation" )
+    @Description( "The activation of the SLF4J binding configuration" )
+    @Category( CATEGORY )
+    @StackTrace( false )
+    static final class LoggingActivationEvent
+        extends Event
+        implements StartupProfiler.Span
+    {
+        @Label( "Configuration" )
+        String configuration;
+
+        @Override
+        public void close()
+        {
+            commit();
+        }
+    }
+
+    @Name( "org.apache.maven.Realm" )
+    @Label( "Class Realm" )
+    @Description( "The creation or disposal of a class realm" )
+    @Category( CATEGORY )
+    static final class RealmEvent
+        extends Event
+    {
+        @Label( "Realm" )
+        String realm;
+
+        @Label( "Action" )
+        String action;
+    }
+}